@@ -0,0 +1,63 @@
+package com.esig.desafio.auth;
+
+import com.esig.desafio.user.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e verificação de tokens. {@code verifyCached} é o caso comum (token já visto, servido
+ * do cache de tokens verificados); {@code verifySignature} mede a verificação completa (HMAC,
+ * parse das claims), com o cache desabilitado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+
+    private static final String SECRET = "segredo-de-benchmark-com-mais-de-32-bytes";
+    private static final long EXPIRATION_MILLIS = 3_600_000;
+
+    private JwtTokenService cachedService;
+    private JwtTokenService uncachedService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedService = new JwtTokenService(SECRET, EXPIRATION_MILLIS, 10_000);
+        uncachedService = new JwtTokenService(SECRET, EXPIRATION_MILLIS, 0);
+        user = User.builder().id(1L).name("Usuário").email("usuario@exemplo.com").roles("ROLE_USER").build();
+        token = cachedService.generateToken(user);
+        cachedService.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken(user);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return cachedService.parseClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifySignature() {
+        return uncachedService.parseClaims(token);
+    }
+}
@@ -0,0 +1,93 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabalho feito na JVM para responder uma listagem de {@code size} tarefas: conversão das
+ * entidades em {@link TaskResponse} e serialização JSON com a mesma configuração de Jackson do Spring.
+ * A ordenação e o filtro ficam no banco (ver {@link TaskService#LISTING_ORDER}) e não entram aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TaskListingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Task> tasks;
+    private List<TaskResponse> responses;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("Responsável").email("responsavel@exemplo.com").roles("ROLE_USER").build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskPriority priority = TaskPriority.values()[i % 3];
+            tasks.add(Task.builder()
+                    .id((long) i)
+                    .title("Tarefa " + i)
+                    .description("Descrição da tarefa " + i)
+                    .responsible(i % 2 == 0 ? owner.getName() : "")
+                    .priority(priority)
+                    .priorityRank(priority.getRank())
+                    .deadline(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                    .status(TaskStatus.EM_ANDAMENTO)
+                    .user(i % 2 == 0 ? owner : null)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .version(0L)
+                    .build());
+        }
+        responses = toResponses();
+    }
+
+    @Benchmark
+    public List<TaskResponse> fromEntity() {
+        return toResponses();
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public void fromEntityAndSerialize() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), toResponses());
+    }
+
+    private List<TaskResponse> toResponses() {
+        return tasks.stream()
+                .map(TaskResponse::fromEntity)
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.esig.desafio.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de permissão ({@link TaskService#ensureCanModify}) feita antes de cada alteração:
+ * admin, responsável pela tarefa e usuário sem permissão (caminho com exceção).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskPermissionBenchmark {
+
+    private final TaskService taskService = new TaskService(null, null, null);
+
+    private Task task;
+    private AuthenticatedUser admin;
+    private AuthenticatedUser owner;
+    private AuthenticatedUser other;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(1L).name("Responsável").email("responsavel@exemplo.com").roles("ROLE_USER").build();
+        task = Task.builder()
+                .id(10L)
+                .title("Tarefa")
+                .priority(TaskPriority.ALTA)
+                .deadline(LocalDate.of(2030, 1, 1))
+                .status(TaskStatus.EM_ANDAMENTO)
+                .user(user)
+                .build();
+
+        admin = new AuthenticatedUser(2L, "Admin", "admin@exemplo.com", "ROLE_USER,ROLE_ADMIN");
+        owner = AuthenticatedUser.fromUser(user);
+        other = new AuthenticatedUser(3L, "Outro", "outro@exemplo.com", "ROLE_USER");
+    }
+
+    @Benchmark
+    public void admin() {
+        taskService.ensureCanModify(task, admin);
+    }
+
+    @Benchmark
+    public void owner() {
+        taskService.ensureCanModify(task, owner);
+    }
+
+    @Benchmark
+    public AccessDeniedException denied() {
+        try {
+            taskService.ensureCanModify(task, other);
+            throw new IllegalStateException("Usuário sem permissão deveria ter sido recusado.");
+        } catch (AccessDeniedException ex) {
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.esig.desafio.auth;
+
+import com.esig.desafio.user.User;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Principal leve da requisição autenticada (id, nome, e-mail e roles).
+ * Pode ser montado diretamente a partir das claims do JWT, sem consulta à tabela de usuários.
+ */
+@Getter
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String displayName;
+    private final String email;
+    private final String roles;
+    private final List<SimpleGrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String displayName, String email, String roles) {
+        this.id = id;
+        this.displayName = displayName;
+        this.email = email;
+        this.roles = roles;
+        this.authorities = roles == null
+                ? List.of()
+                : Arrays.stream(roles.split(","))
+                        .map(String::trim)
+                        .filter(role -> !role.isEmpty())
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
+    }
+
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getName(), user.getEmail(), user.getRoles());
+    }
+
+    /**
+     * Monta o principal a partir das claims geradas por {@link JwtTokenService#generateToken}.
+     * Retorna vazio quando o token não traz todas as claims necessárias (ex.: tokens emitidos
+     * antes da inclusão do nome), caso em que o chamador deve recorrer ao banco.
+     */
+    public static Optional<AuthenticatedUser> fromClaims(Claims claims) {
+        Long id = claims.get("id", Long.class);
+        String name = claims.get("name", String.class);
+        String email = claims.get("email", String.class);
+        String roles = claims.get("roles", String.class);
+
+        if (id == null || name == null || email == null || roles == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(id, name, email, roles));
+    }
+
+    public boolean isAdmin() {
+        return roles != null && roles.contains("ROLE_ADMIN");
+    }
+
+    /**
+     * Nome do principal para o Spring Security: o e-mail, usado como username.
+     * O nome do usuário fica em {@link #getDisplayName()}.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+}
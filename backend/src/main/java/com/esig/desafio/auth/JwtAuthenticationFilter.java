@@ -1,26 +1,42 @@
 package com.esig.desafio.auth;
 
+import com.esig.desafio.user.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
+    private final UserService userService;
+
+    /**
+     * Quando true, o principal é montado a partir das claims do token, sem consultar a tabela de usuários.
+     * Quando false, o usuário é carregado do banco a cada requisição (alterações de roles valem imediatamente).
+     */
+    private final boolean principalFromClaims;
+
+    public JwtAuthenticationFilter(
+            JwtTokenService jwtTokenService,
+            UserService userService,
+            @Value("${app.security.jwt.principal-from-claims:true}") boolean principalFromClaims
+    ) {
+        this.jwtTokenService = jwtTokenService;
+        this.userService = userService;
+        this.principalFromClaims = principalFromClaims;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -30,23 +46,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtTokenService.getUsernameFromToken(token);
-        }
+        if (authHeader != null
+                && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+
+            // Uma única verificação do token por requisição (servida do cache quando já verificado).
+            Optional<Claims> claims = jwtTokenService.parseClaims(token);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            AuthenticatedUser principal = claims
+                    .flatMap(this::resolvePrincipal)
+                    .orElse(null);
 
-            if (jwtTokenService.isTokenValid(token)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities()
+                                principal.getAuthorities()
                         );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -55,6 +73,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private Optional<AuthenticatedUser> resolvePrincipal(Claims claims) {
+        if (principalFromClaims) {
+            Optional<AuthenticatedUser> fromClaims = AuthenticatedUser.fromClaims(claims);
+            if (fromClaims.isPresent()) {
+                return fromClaims;
+            }
+        }
 
+        String email = claims.getSubject();
+        if (email == null) {
+            return Optional.empty();
+        }
+        return userService.findByEmail(email).map(AuthenticatedUser::fromUser);
+    }
+}
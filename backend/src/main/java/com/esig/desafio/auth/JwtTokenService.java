@@ -1,28 +1,60 @@
 package com.esig.desafio.auth;
 
 import com.esig.desafio.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class JwtTokenService {
+public class JwtTokenService implements MeterBinder {
 
-    private final String secret;
     private final long expirationMillis;
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    /**
+     * Tokens já verificados (assinatura e expiração), indexados pelo SHA-256 do token.
+     * Cada entrada expira junto com o claim {@code exp} do próprio token.
+     */
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtTokenService(
             @Value("${app.security.jwt.secret}") String secret,
-            @Value("${app.security.jwt.expiration}") long expirationMillis
+            @Value("${app.security.jwt.expiration}") long expirationMillis,
+            @Value("${app.security.jwt.cache.max-size:10000}") long cacheMaxSize
     ) {
-        this.secret = secret;
         this.expirationMillis = expirationMillis;
+        this.signingKey = buildSigningKey(secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
     }
 
     public String generateToken(User user) {
@@ -32,37 +64,75 @@ public class JwtTokenService {
         return Jwts.builder()
                 .setSubject(user.getEmail())
                 .claim("id", user.getId())
+                .claim("name", user.getName())
                 .claim("email", user.getEmail())
                 .claim("roles", user.getRoles())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return getAllClaims(token).getSubject();
-    }
+    /**
+     * Verifica o token uma única vez e retorna suas claims.
+     * Tokens já verificados são servidos do cache até o seu {@code exp}, sem nova verificação de assinatura.
+     * Retorna vazio quando o token é inválido ou está expirado.
+     */
+    @Timed(value = "auth.jwt.verification", description = "Tempo de verificação do token JWT (inclui acertos do cache)")
+    public Optional<Claims> parseClaims(String token) {
+        String key = digest(token);
+
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedTokens.invalidate(key);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
 
-    public boolean isTokenValid(String token) {
         try {
-            Claims claims = getAllClaims(token);
-            return !claims.getExpiration().before(new Date());
-        } catch (Exception ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null || isExpired(claims)) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(key, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
         }
     }
 
-    private Claims getAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Estatísticas (acertos/erros) do cache de tokens verificados.
+     */
+    public CacheStats getVerifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    /**
+     * Publica acertos, erros e tamanho do cache de tokens verificados ({@code cache="jwt-verified-tokens"}).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt-verified-tokens");
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM.", ex);
+        }
     }
 
-    private Key getSigningKey() {
+    private static Key buildSigningKey(String secret) {
         /*
          * Para simplificar o uso em desenvolvimento, tratamos o secret como texto puro
          * e apenas garantimos que o array de bytes tenha pelo menos 32 bytes (256 bits),
@@ -79,6 +149,26 @@ public class JwtTokenService {
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
-}
 
+    /**
+     * Política de expiração: a entrada vive apenas até o {@code exp} do token.
+     */
+    private static class UntilTokenExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
 
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
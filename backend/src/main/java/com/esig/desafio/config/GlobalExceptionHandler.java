@@ -2,17 +2,25 @@ package com.esig.desafio.config;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -43,6 +51,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    /**
+     * Versão informada em If-Match diferente da atual, ou alteração concorrente detectada pelo @Version.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLocking(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.PRECONDITION_FAILED;
+        String message = ex instanceof ObjectOptimisticLockingFailureException
+                ? "O registro foi alterado por outra requisição. Recarregue e tente novamente."
+                : ex.getMessage();
+        ApiError error = buildError(status, message, request.getRequestURI(), List.of());
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Sem conexão disponível no pool dentro do connection-timeout (sobrecarga) ou banco indisponível,
+     * ou pool de hash de senha saturado (ver {@link BoundedPasswordEncoder}).
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, RejectedExecutionException.class})
+    public ResponseEntity<ApiError> handleServiceUnavailable(RuntimeException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        String message = "Serviço temporariamente sobrecarregado. Tente novamente em instantes.";
+        ApiError error = buildError(status, message, request.getRequestURI(), List.of());
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ApiError> handleAuthentication(AuthenticationException ex, HttpServletRequest request) {
         HttpStatus status = HttpStatus.UNAUTHORIZED;
@@ -70,6 +103,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    /**
+     * Restrições em parâmetros de query (ex.: {@code @Size} em {@code q} de {@code GET /users}).
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ApiError> handleParameterValidation(HandlerMethodValidationException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        List<ApiFieldError> fieldErrors = ex.getAllValidationResults()
+                .stream()
+                .flatMap(result -> result.getResolvableErrors().stream()
+                        .map(resolvable -> new ApiFieldError(
+                                parameterName(result.getMethodParameter()),
+                                resolvable.getDefaultMessage() != null ? resolvable.getDefaultMessage() : "Valor inválido."
+                        )))
+                .toList();
+
+        ApiError error = buildError(
+                status,
+                "Um ou mais parâmetros estão inválidos.",
+                request.getRequestURI(),
+                fieldErrors
+        );
+        return ResponseEntity.status(status).body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest request) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -95,6 +153,12 @@ public class GlobalExceptionHandler {
                 : "Valor inválido.";
         return new ApiFieldError(fieldError.getField(), message);
     }
-}
-
 
+    private String parameterName(MethodParameter parameter) {
+        RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+        if (requestParam != null && !requestParam.name().isEmpty()) {
+            return requestParam.name();
+        }
+        return parameter.getParameterName();
+    }
+}
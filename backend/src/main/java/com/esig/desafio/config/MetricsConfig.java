@@ -0,0 +1,32 @@
+package com.esig.desafio.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Predicate;
+
+/**
+ * Métricas da aplicação, expostas pelo Actuator em {@code /actuator/prometheus} (porta de gerenciamento).
+ *
+ * Além das métricas automáticas (requisições HTTP por endpoint, pool HikariCP, estatísticas do
+ * Hibernate, JVM), os serviços anotados com {@code @Timed} geram um timer por método
+ * (tags {@code class}, {@code method} e {@code exception}). Histogramas para p99 são habilitados
+ * em {@code management.metrics.distribution} no application.yml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * O registro dos caches ({@link MeterBinder#bindTo}) roda uma vez na inicialização e não é medido.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        Predicate<ProceedingJoinPoint> meterBinding = joinPoint -> joinPoint.getTarget() instanceof MeterBinder
+                && "bindTo".equals(joinPoint.getSignature().getName());
+        return new TimedAspect(registry, meterBinding);
+    }
+}
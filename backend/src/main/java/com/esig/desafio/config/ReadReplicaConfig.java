@@ -0,0 +1,72 @@
+package com.esig.desafio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura, ativada quando {@code app.datasource.replica.url} ({@code DB_REPLICA_URL}) é informada.
+ * Sem ela, a aplicação usa apenas o DataSource padrão do Spring Boot.
+ *
+ * Os dois pools usam as configurações de {@code spring.datasource.hikari}; o tamanho do pool da
+ * réplica pode ser ajustado à parte. As regras de roteamento estão em {@link ReplicaRoutingDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * DataSource usado pelo JPA, Flyway e demais componentes: roteia cada conexão para o principal
+     * ou para a réplica no primeiro comando da transação.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            @Value("${app.datasource.replica.pool-size:0}") int replicaPoolSize,
+            @Value("${app.datasource.replica.read-your-writes:PT5S}") Duration readYourWritesWindow
+    ) {
+        // Aplicado aqui, depois que spring.datasource.hikari já foi vinculado ao pool da réplica.
+        if (replicaPoolSize > 0) {
+            replicaDataSource.setMaximumPoolSize(replicaPoolSize);
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesWindow));
+    }
+}
@@ -0,0 +1,99 @@
+package com.esig.desafio.config;
+
+import com.esig.desafio.DesafioEsigApplication;
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Escolhe entre o banco principal e a réplica de leitura a cada conexão obtida.
+ *
+ * Vão para a réplica apenas as transações {@code @Transactional(readOnly = true)} declaradas pela
+ * aplicação (listagens, exportação, ETags). As transações somente leitura padrão dos repositórios do
+ * Spring Data (ex.: {@code findById}, {@code findByEmail} no login) continuam no principal: são
+ * consultas pontuais e baratas que precisam enxergar o último cadastro. Escritas e consultas sem
+ * transação também usam o principal.
+ *
+ * Leitura das próprias escritas: depois de uma transação de escrita, as leituras do mesmo usuário
+ * ficam no principal durante {@code readYourWritesWindow}, que deve cobrir o atraso de replicação.
+ * O controle é local a cada instância da aplicação.
+ *
+ * Deve ser usado atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * o gerenciador de transações pede a conexão antes de marcar a transação como somente leitura, e o
+ * proxy adia a escolha até o primeiro comando.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final String APPLICATION_PACKAGE = DesafioEsigApplication.class.getPackageName() + ".";
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        Long userId = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                markRecentWriter(userId);
+            }
+            return Target.PRIMARY;
+        }
+
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(APPLICATION_PACKAGE)) {
+            return Target.PRIMARY;
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Marca o usuário ao abrir a transação de escrita e de novo ao terminá-la, para que a janela
+     * conte a partir do commit mesmo em transações longas (ex.: importação).
+     */
+    private void markRecentWriter(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
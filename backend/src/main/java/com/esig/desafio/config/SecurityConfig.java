@@ -1,8 +1,14 @@
 package com.esig.desafio.config;
 
 import com.esig.desafio.auth.JwtAuthenticationFilter;
+import com.esig.desafio.ratelimit.RateLimitFilter;
 import com.esig.desafio.user.User;
 import com.esig.desafio.user.UserRepository;
+import com.esig.desafio.user.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +19,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -23,8 +30,11 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -32,9 +42,46 @@ import java.util.stream.Collectors;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\$2[abxy]?\\$(\\d{2})\\$");
+
+    /**
+     * BCrypt com custo configurável ({@code app.security.password.strength}), executado no pool limitado
+     * do {@link BoundedPasswordEncoder}. Hashes gravados com outro custo são refeitos no próximo login
+     * bem-sucedido (ver {@link #userDetailsPasswordService(UserService)}).
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password.strength:10}") int strength,
+            @Value("${app.security.password.hashing.threads:0}") int threads,
+            @Value("${app.security.password.hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${app.security.password.hashing.timeout:PT3S}") Duration timeout
+    ) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength) {
+            // O BCryptPasswordEncoder só pede rehash de custos menores; aqui qualquer custo diferente é refeito.
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                int cost = bcryptCost(encodedPassword);
+                return cost != -1 && cost != strength;
+            }
+        };
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new TimedPasswordEncoder(bcrypt, meterRegistry), poolSize, queueCapacity, timeout, meterRegistry);
+    }
+
+    /**
+     * Usado pelo DaoAuthenticationProvider para gravar o novo hash quando
+     * {@link PasswordEncoder#upgradeEncoding(String)} indica que o custo mudou.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UserDetailsPasswordService userDetailsPasswordService(UserService userService) {
+        return (userDetails, newPassword) -> {
+            userService.updatePasswordHash(userDetails.getUsername(), newPassword);
+            return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                    .password(newPassword)
+                    .build();
+        };
     }
 
     @Bean
@@ -64,16 +111,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            RateLimitFilter rateLimitFilter
+    ) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Despachos assíncronos (SSE e exportação em streaming) continuam uma requisição já autorizada.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Actuator fica na porta de gerenciamento (management.server.port), que não deve ser pública.
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                         .requestMatchers(
                                 "/auth/login",
                                 "/auth/register",
-                                "/users",
                                 "/error",
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
@@ -82,7 +136,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Depois do JWT, para limitar por usuário autenticado.
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -95,13 +151,23 @@ public class SecurityConfig {
                 "https://desafio-esig-bice.vercel.app"
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With"));
+        configuration.setAllowedHeaders(List.of(
+                "Authorization", "Content-Type", "Accept", "Origin", "X-Requested-With", "If-None-Match", "If-Match"));
+        configuration.setExposedHeaders(List.of("ETag", "Retry-After"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
+
+    /**
+     * Custo de um hash BCrypt no formato {@code $2a$10$...}, ou -1 se o valor não for um hash BCrypt.
+     */
+    static int bcryptCost(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword != null ? encodedPassword : "");
+        return matcher.lookingAt() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
 }
 
 
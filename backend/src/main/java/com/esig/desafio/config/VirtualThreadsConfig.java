@@ -0,0 +1,52 @@
+package com.esig.desafio.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Verificações do perfil {@code virtual-threads} (ver application-virtual-threads.yml).
+ *
+ * Uma virtual thread bloqueada em I/O dentro de um bloco {@code synchronized} prende a thread
+ * portadora (pinning). Versões do driver PostgreSQL anteriores à 42.6 sincronizam o envio e a
+ * leitura de cada consulta com {@code synchronized}: com poucas portadoras (uma por núcleo), um
+ * punhado de consultas lentas pararia todas as requisições. A aplicação não sobe nesse perfil com
+ * um driver assim. Para investigar pinning em outras bibliotecas, rode com
+ * {@code -Djdk.tracePinnedThreads=short}.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig implements InitializingBean {
+
+    private static final int MIN_PGJDBC_MAJOR = 42;
+    private static final int MIN_PGJDBC_MINOR = 6;
+
+    private final DataSource dataSource;
+
+    public VirtualThreadsConfig(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            if (!"PostgreSQL JDBC Driver".equals(metaData.getDriverName())) {
+                return;
+            }
+
+            int major = metaData.getDriverMajorVersion();
+            int minor = metaData.getDriverMinorVersion();
+            if (major < MIN_PGJDBC_MAJOR || (major == MIN_PGJDBC_MAJOR && minor < MIN_PGJDBC_MINOR)) {
+                throw new IllegalStateException("O perfil virtual-threads exige o driver PostgreSQL "
+                        + MIN_PGJDBC_MAJOR + "." + MIN_PGJDBC_MINOR + " ou superior (encontrado: "
+                        + metaData.getDriverVersion() + "), sem synchronized no caminho das consultas.");
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.esig.desafio.ratelimit;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.esig.desafio.config.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de requisições por token bucket, executado logo após o {@code JwtAuthenticationFilter}.
+ *
+ * Grupos (limites em {@code app.rate-limit.*}):
+ * <ul>
+ *     <li>{@code auth}: {@code /auth/login} e {@code /auth/register}, por IP;</li>
+ *     <li>{@code tasks-search}: {@code GET /tasks} e {@code GET /tasks/export}, por usuário;</li>
+ *     <li>{@code api}: demais requisições autenticadas, por usuário.</li>
+ * </ul>
+ * Requisições anônimas fora de {@code /auth} não são limitadas (já terminam em 401 ou são rotas públicas).
+ * Ao estourar o limite, responde 429 com {@code Retry-After}. Os baldes ficam em caches Caffeine
+ * (mapa concorrente, sem lock global) e são descartados após {@code idle-timeout} sem uso; um balde
+ * descartado equivale a um balde cheio, então o timeout deve ser maior que o tempo de reabastecimento.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Set<String> AUTH_PATHS = Set.of("/auth/login", "/auth/register");
+    private static final Set<String> SEARCH_PATHS = Set.of("/tasks", "/tasks/export");
+    /** Limite de baldes por grupo, além da expiração por inatividade (ex.: muitos IPs distintos em /auth). */
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Group auth;
+    private final Group tasksSearch;
+    private final Group api;
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+            @Value("${app.rate-limit.auth.capacity:20}") int authCapacity,
+            @Value("${app.rate-limit.auth.rate:1}") double authRate,
+            @Value("${app.rate-limit.tasks-search.capacity:20}") int searchCapacity,
+            @Value("${app.rate-limit.tasks-search.rate:5}") double searchRate,
+            @Value("${app.rate-limit.api.capacity:60}") int apiCapacity,
+            @Value("${app.rate-limit.api.rate:20}") double apiRate
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.auth = new Group("auth", authCapacity, authRate, idleTimeout);
+        this.tasksSearch = new Group("tasks-search", searchCapacity, searchRate, idleTimeout);
+        this.api = new Group("api", apiCapacity, apiRate, idleTimeout);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (enabled) {
+            String path = request.getServletPath();
+            long waitNanos;
+            if (AUTH_PATHS.contains(path)) {
+                waitNanos = auth.tryConsume(request.getRemoteAddr());
+            } else {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                    Group group = HttpMethod.GET.matches(request.getMethod()) && SEARCH_PATHS.contains(path)
+                            ? tasksSearch
+                            : api;
+                    waitNanos = group.tryConsume(user.getId());
+                } else {
+                    waitNanos = 0;
+                }
+            }
+
+            if (waitNanos > 0) {
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Publica as requisições recusadas por grupo ({@code http.rate-limit.rejected}) e o número de baldes em memória.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Group group : List.of(auth, tasksSearch, api)) {
+            FunctionCounter.builder("http.rate-limit.rejected", group.rejected, LongAdder::sum)
+                    .description("Requisições recusadas com 429")
+                    .tag("group", group.name)
+                    .register(registry);
+            registry.gauge("http.rate-limit.buckets", Tags.of("group", group.name), group.buckets, Cache::estimatedSize);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        ApiError error = new ApiError(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                "Muitas requisições. Tente novamente em " + retryAfterSeconds + " s.",
+                request.getRequestURI(),
+                List.of()
+        );
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static class Group {
+
+        private final String name;
+        private final int capacity;
+        private final double rate;
+        private final Cache<Object, TokenBucket> buckets;
+        private final LongAdder rejected = new LongAdder();
+
+        Group(String name, int capacity, double rate, Duration idleTimeout) {
+            this.name = name;
+            this.capacity = capacity;
+            this.rate = rate;
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(idleTimeout)
+                    .maximumSize(MAX_BUCKETS)
+                    .build();
+        }
+
+        long tryConsume(Object key) {
+            long waitNanos = buckets.get(key, ignored -> new TokenBucket(capacity, rate)).tryConsume(System.nanoTime());
+            if (waitNanos > 0) {
+                rejected.increment();
+            }
+            return waitNanos;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.esig.desafio.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks, no formato GCRA: o estado é um único instante teórico de chegada
+ * (em nanos), atualizado por CAS. Equivale a um balde de {@code capacity} fichas reabastecido
+ * a {@code ratePerSecond} fichas por segundo.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(int capacity, double ratePerSecond) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Consome uma ficha no instante {@code now} ({@link System#nanoTime()}).
+     *
+     * @return 0 se a requisição foi permitida; senão, os nanos até haver ficha disponível
+     */
+    long tryConsume(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current == Long.MIN_VALUE ? now : Math.max(current, now)) + intervalNanos;
+            long allowedAt = next - burstNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
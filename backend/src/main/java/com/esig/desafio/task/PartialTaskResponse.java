@@ -0,0 +1,49 @@
+package com.esig.desafio.task;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * {@link TaskResponse} restrita aos campos pedidos em {@code fields=}: apenas eles aparecem no JSON
+ * (um campo selecionado com valor nulo continua presente, como {@code null}).
+ */
+class PartialTaskResponse extends TaskResponse implements JsonSerializable {
+
+    private final Set<TaskField> fields;
+
+    PartialTaskResponse(TaskResponse task, Set<TaskField> fields) {
+        super(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getResponsible(),
+                task.getPriority(),
+                task.getDeadline(),
+                task.getStatus(),
+                task.getResponsibleId(),
+                task.getCreatedAt(),
+                task.getUpdatedAt(),
+                task.getVersion()
+        );
+        this.fields = fields;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(this);
+        for (TaskField field : fields) {
+            serializers.defaultSerializeField(field.getName(), field.getGetter().apply(this), gen);
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,8 +22,13 @@ import java.time.LocalDateTime;
 @Builder
 public class Task {
 
+    /**
+     * Ids reservados em blocos de 50 na sequência (ver V3__task_id_pooled_sequence.sql),
+     * o que permite ao Hibernate agrupar INSERTs em batches JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -37,6 +44,15 @@ public class Task {
     @Column(nullable = false, length = 20)
     private TaskPriority priority;
 
+    /**
+     * Espelho numérico de {@link #priority}, mantido pelos callbacks de persistência,
+     * para que a ordenação por prioridade possa ser feita no banco.
+     * A coluna é SMALLINT (V2__add_task_priority_rank.sql).
+     */
+    @JdbcTypeCode(SqlTypes.SMALLINT)
+    @Column(name = "priority_rank", nullable = false)
+    private Integer priorityRank;
+
     @Column(nullable = false)
     private LocalDate deadline;
 
@@ -54,6 +70,13 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Versão para controle de concorrência otimista: incrementada a cada alteração e usada como
+     * ETag da tarefa ({@code If-Match} em PUT/PATCH/DELETE).
+     */
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -61,11 +84,17 @@ public class Task {
         if (this.status == null) {
             this.status = TaskStatus.EM_ANDAMENTO;
         }
+        syncPriorityRank();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        syncPriorityRank();
+    }
+
+    private void syncPriorityRank() {
+        this.priorityRank = this.priority != null ? this.priority.getRank() : null;
     }
 }
 
@@ -0,0 +1,20 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de uma operação do lote.
+ * {@code status} segue os códigos HTTP que a operação teria no endpoint individual
+ * (201, 200, 204, 400, 403 ou 404).
+ */
+@Getter
+@AllArgsConstructor
+public class TaskBatchItemResult {
+
+    private final int index;
+    private final TaskBatchOperationType type;
+    private final int status;
+    private final Long id;
+    private final String message;
+}
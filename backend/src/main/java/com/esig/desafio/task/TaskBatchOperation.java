@@ -0,0 +1,29 @@
+package com.esig.desafio.task;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Operação individual de um lote enviado para {@code POST /tasks/batch}.
+ * - CREATE: usa {@code task} (mesmas validações de {@link TaskRequest}).
+ * - UPDATE: usa {@code id} e {@code changes} (atualização parcial, como em {@code PUT /tasks/{id}}).
+ * - COMPLETE / DELETE: usam apenas {@code id}.
+ * Em UPDATE, COMPLETE e DELETE, {@code version} (opcional) tem o papel do header If-Match:
+ * a operação falha com 412 se a tarefa estiver em outra versão.
+ */
+@Getter
+@Setter
+public class TaskBatchOperation {
+
+    @NotNull
+    private TaskBatchOperationType type;
+
+    private Long id;
+
+    private Long version;
+
+    private TaskRequest task;
+
+    private TaskUpdateRequest changes;
+}
@@ -0,0 +1,8 @@
+package com.esig.desafio.task;
+
+public enum TaskBatchOperationType {
+    CREATE,
+    UPDATE,
+    COMPLETE,
+    DELETE
+}
@@ -0,0 +1,19 @@
+package com.esig.desafio.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TaskBatchRequest {
+
+    @NotEmpty
+    @Size(max = TaskBatchService.MAX_OPERATIONS)
+    private List<@Valid @NotNull TaskBatchOperation> operations;
+}
@@ -0,0 +1,15 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskBatchResponse {
+
+    private final int succeeded;
+    private final int failed;
+    private final List<TaskBatchItemResult> results;
+}
@@ -0,0 +1,130 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.esig.desafio.user.User;
+import com.esig.desafio.user.UserService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Executa lotes de operações sobre tarefas em uma única transação.
+ *
+ * Cada operação passa pelas mesmas regras de {@link TaskService} (incluindo as permissões de
+ * {@code ensureCanModify}); falhas de validação, permissão ou tarefa inexistente são reportadas
+ * por item, sem interromper as demais operações. Os INSERTs pendentes são enviados ao banco
+ * agrupados em batches JDBC, no commit ou no próximo flush.
+ *
+ * Uma atualização lê a tarefa com a linha bloqueada e é gravada com flush no próprio item: o evento
+ * publicado já tem a versão e o {@code updatedAt} gravados, e um conflito de versão (412) só pode
+ * vir do {@code If-Match} daquele item, nunca de um flush posterior que marcaria a transação
+ * inteira para rollback. Conclusões e remoções já são comandos condicionais executados no banco.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskBatchService {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final Validator validator;
+
+    @Transactional
+    public TaskBatchResponse execute(List<TaskBatchOperation> operations, AuthenticatedUser actor) {
+        List<TaskBatchItemResult> results = new ArrayList<>(operations.size());
+        int failed = 0;
+
+        for (int index = 0; index < operations.size(); index++) {
+            TaskBatchItemResult result = executeOne(index, operations.get(index), actor);
+            if (result.getStatus() >= 400) {
+                failed++;
+            }
+            results.add(result);
+        }
+
+        return new TaskBatchResponse(operations.size() - failed, failed, results);
+    }
+
+    private TaskBatchItemResult executeOne(int index, TaskBatchOperation operation, AuthenticatedUser actor) {
+        TaskBatchOperationType type = operation.getType();
+        try {
+            return switch (type) {
+                case CREATE -> {
+                    TaskRequest request = requireValid(operation.getTask(), "task");
+                    Task created = taskService.create(request.toEntity(resolveUser(request.getResponsibleUserId())), actor);
+                    yield success(index, type, HttpStatus.CREATED, created.getId());
+                }
+                case UPDATE -> {
+                    Long id = requireId(operation);
+                    TaskUpdateRequest changes = requireValid(operation.getChanges(), "changes");
+                    taskService.update(id, changes.toEntity(resolveUser(changes.getResponsibleUserId())), actor, operation.getVersion());
+                    yield success(index, type, HttpStatus.OK, id);
+                }
+                case COMPLETE -> {
+                    Long id = requireId(operation);
+                    taskService.complete(id, actor, operation.getVersion());
+                    yield success(index, type, HttpStatus.OK, id);
+                }
+                case DELETE -> {
+                    Long id = requireId(operation);
+                    taskService.delete(id, actor, operation.getVersion());
+                    yield success(index, type, HttpStatus.NO_CONTENT, id);
+                }
+            };
+        } catch (EntityNotFoundException ex) {
+            return failure(index, operation, HttpStatus.NOT_FOUND, ex.getMessage());
+        } catch (AccessDeniedException ex) {
+            return failure(index, operation, HttpStatus.FORBIDDEN, ex.getMessage());
+        } catch (OptimisticLockingFailureException ex) {
+            return failure(index, operation, HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            return failure(index, operation, HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private <T> T requireValid(T payload, String field) {
+        if (payload == null) {
+            throw new IllegalArgumentException("O campo " + field + " é obrigatório para esta operação.");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(payload);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> field + "." + violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            throw new IllegalArgumentException(message);
+        }
+        return payload;
+    }
+
+    private Long requireId(TaskBatchOperation operation) {
+        if (operation.getId() == null) {
+            throw new IllegalArgumentException("O campo id é obrigatório para esta operação.");
+        }
+        return operation.getId();
+    }
+
+    private User resolveUser(Long userId) {
+        return userId != null ? userService.getByIdOrThrow(userId) : null;
+    }
+
+    private TaskBatchItemResult success(int index, TaskBatchOperationType type, HttpStatus status, Long id) {
+        return new TaskBatchItemResult(index, type, status.value(), id, null);
+    }
+
+    private TaskBatchItemResult failure(int index, TaskBatchOperation operation, HttpStatus status, String message) {
+        return new TaskBatchItemResult(index, operation.getType(), status.value(), operation.getId(), message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Alteração de uma tarefa, publicada pelo {@link TaskService} e entregue após o commit aos
+ * assinantes do {@link TaskChangeStream} e aos contadores do {@link TaskStatsService}.
+ *
+ * {@code task} traz o estado após a alteração (ou o último estado, no caso de remoção).
+ * {@code previous} é o estado antes de uma atualização e é nulo em criações e remoções.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangeEvent {
+
+    private final TaskChangeType type;
+    private final TaskResponse task;
+    private final TaskResponse previous;
+
+    public static TaskChangeEvent created(Task task) {
+        return new TaskChangeEvent(TaskChangeType.CREATED, TaskResponse.fromEntity(task), null);
+    }
+
+    public static TaskChangeEvent updated(TaskResponse task, TaskResponse previous) {
+        return new TaskChangeEvent(TaskChangeType.UPDATED, task, previous);
+    }
+
+    public static TaskChangeEvent deleted(TaskResponse task) {
+        return new TaskChangeEvent(TaskChangeType.DELETED, task, null);
+    }
+
+    /**
+     * Mesma regra da listagem para usuários não admin: tarefas do próprio usuário ou sem responsável.
+     * A alteração é visível se a tarefa era visível antes ou passou a ser depois dela, para que
+     * quem deixou de ser responsável também seja avisado.
+     */
+    public boolean isVisibleTo(AuthenticatedUser subscriber) {
+        if (subscriber.isAdmin()) {
+            return true;
+        }
+        return isOwnerOrUnassigned(task.getResponsibleId(), subscriber)
+                || (previous != null && isOwnerOrUnassigned(previous.getResponsibleId(), subscriber));
+    }
+
+    private static boolean isOwnerOrUnassigned(Long responsibleId, AuthenticatedUser subscriber) {
+        return responsibleId == null || responsibleId.equals(subscriber.getId());
+    }
+}
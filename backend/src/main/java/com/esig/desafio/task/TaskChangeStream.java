@@ -0,0 +1,154 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Barramento em memória das alterações de tarefas, exposto via Server-Sent Events em {@code GET /tasks/stream}.
+ *
+ * Os eventos chegam do {@link TaskService} somente após o commit da transação (ou imediatamente,
+ * quando não há transação ativa) e são filtrados por assinante com a mesma regra de visibilidade
+ * da listagem. Cada assinante tem uma fila limitada e uma virtual thread própria que escreve na
+ * conexão: quem publica apenas enfileira e nunca espera por um cliente lento. Se a fila de um
+ * assinante enche, a conexão é encerrada; o cliente reconecta e deve recarregar a listagem,
+ * já que eventos foram perdidos.
+ *
+ * Cada evento é montado uma única vez ({@link SseEmitter.SseEventBuilder#build()}) e o resultado,
+ * imutável, é compartilhado entre as filas: o builder não é thread-safe e não pode ser enviado
+ * por várias threads ao mesmo tempo.
+ */
+@Component
+public class TaskChangeStream {
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public TaskChangeStream(
+            @Value("${app.tasks.stream.buffer-size:256}") int bufferSize,
+            @Value("${app.tasks.stream.timeout:30m}") Duration timeout
+    ) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe(AuthenticatedUser subscriber) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(subscriber, emitter, bufferSize);
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+
+        subscriptions.add(subscription);
+        subscription.offer(build(SseEmitter.event().reconnectTime(RECONNECT_DELAY_MILLIS).comment("conectado")));
+        subscription.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> message = build(SseEmitter.event()
+                .id(String.valueOf(eventIds.incrementAndGet()))
+                .name(event.getType().name())
+                .data(event.getTask()));
+
+        for (Subscription subscription : subscriptions) {
+            if (event.isVisibleTo(subscription.subscriber) && !subscription.offer(message)) {
+                // Cliente não acompanha o ritmo dos eventos: encerra para que reconecte e recarregue.
+                remove(subscription);
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Comentário periódico para manter a conexão aberta em proxies e detectar clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = build(SseEmitter.event().comment("ping"));
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(ping);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> build(SseEmitter.SseEventBuilder event) {
+        return Collections.unmodifiableSet(event.build());
+    }
+
+    private void remove(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.stop();
+        }
+    }
+
+    private class Subscription {
+
+        private final AuthenticatedUser subscriber;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private Thread sender;
+
+        private Subscription(AuthenticatedUser subscriber, SseEmitter emitter, int bufferSize) {
+            this.subscriber = subscriber;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            return buffer.offer(message);
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual()
+                    .name("task-stream-" + subscriber.getId())
+                    .start(this::drain);
+        }
+
+        private void stop() {
+            if (sender != null) {
+                sender.interrupt();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    emitter.send(buffer.take());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException ex) {
+                // Conexão encerrada pelo cliente ou emitter já finalizado.
+                remove(this);
+            } catch (RuntimeException ex) {
+                // Falha inesperada ao escrever (ex.: serialização): encerra a conexão para que o cliente
+                // reconecte, em vez de mantê-la aberta sem ninguém enviando eventos.
+                remove(this);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.esig.desafio.task;
+
+/**
+ * Tipo de alteração publicada no feed de tarefas ({@code GET /tasks/stream}).
+ */
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,18 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumo de um conjunto filtrado de tarefas usado para compor o ETag da listagem:
+ * quantidade de linhas e maior {@code updatedAt} (nulo quando o conjunto está vazio).
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCollectionVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdatedAt;
+}
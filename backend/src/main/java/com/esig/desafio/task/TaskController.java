@@ -1,87 +1,113 @@
 package com.esig.desafio.task;
 
+import com.esig.desafio.auth.AuthenticatedUser;
 import com.esig.desafio.user.User;
 import com.esig.desafio.user.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    /**
+     * Respostas com ETag podem ser guardadas pelo navegador, mas devem ser revalidadas a cada uso.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskChangeStream taskChangeStream;
+    private final TaskStatsService taskStatsService;
     private final UserService userService;
 
     @PostMapping
     public ResponseEntity<TaskResponse> create(@Valid @RequestBody TaskRequest request) {
-        User actor = getAuthenticatedUser();
+        AuthenticatedUser actor = getAuthenticatedUser();
 
         Long responsibleId = request.getResponsibleUserId();
         User responsibleUser = responsibleId != null
                 ? userService.getByIdOrThrow(responsibleId)
                 : null;
 
-        Task task = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .responsible(responsibleUser != null ? responsibleUser.getName() : "")
-                .priority(request.getPriority())
-                .deadline(request.getDeadline())
-                .status(request.getStatus())
-                .user(responsibleUser)
-                .build();
+        Task task = request.toEntity(responsibleUser);
 
         Task created = taskService.create(task, actor);
         return ResponseEntity.status(HttpStatus.CREATED).body(TaskResponse.fromEntity(created));
     }
 
+    /**
+     * Executa um lote de operações (CREATE, UPDATE, COMPLETE, DELETE) em uma única transação,
+     * retornando o resultado de cada item.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> batch(@Valid @RequestBody TaskBatchRequest request) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        return ResponseEntity.ok(taskBatchService.execute(request.getOperations(), actor));
+    }
+
+    /**
+     * Atualização parcial. Com {@code If-Match} (ETag retornado pela API), a alteração só é aplicada
+     * se a tarefa ainda estiver na mesma versão; caso contrário, retorna 412.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> update(
             @PathVariable Long id,
-            @RequestBody TaskUpdateRequest request
+            @RequestBody TaskUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        User actor = getAuthenticatedUser();
+        AuthenticatedUser actor = getAuthenticatedUser();
 
         User responsibleUser = null;
         if (request.getResponsibleUserId() != null) {
             responsibleUser = userService.getByIdOrThrow(request.getResponsibleUserId());
         }
 
-        Task toUpdate = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .priority(request.getPriority())
-                .deadline(request.getDeadline())
-                .status(request.getStatus())
-                .user(responsibleUser)
-                .build();
+        Task toUpdate = request.toEntity(responsibleUser);
 
-        Task updated = taskService.update(id, toUpdate, actor);
-        return ResponseEntity.ok(TaskResponse.fromEntity(updated));
+        Task updated = taskService.update(id, toUpdate, actor, TaskETags.parseIfMatch(ifMatch));
+        return withETag(TaskResponse.fromEntity(updated));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        User actor = getAuthenticatedUser();
-        taskService.delete(id, actor);
+    public void delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        taskService.delete(id, actor, TaskETags.parseIfMatch(ifMatch));
     }
 
     @PatchMapping("/{id}/concluir")
-    public ResponseEntity<TaskResponse> complete(@PathVariable Long id) {
-        User actor = getAuthenticatedUser();
-        Task completed = taskService.complete(id, actor);
-        return ResponseEntity.ok(TaskResponse.fromEntity(completed));
+    public ResponseEntity<TaskResponse> complete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        return withETag(taskService.complete(id, actor, TaskETags.parseIfMatch(ifMatch)));
     }
 
     /**
@@ -90,18 +116,41 @@ public class TaskController {
      * - ROLE_USER usa este endpoint para se vincular a tarefas sem responsável.
      */
     @PatchMapping("/{id}/responsavel")
-    public ResponseEntity<TaskResponse> linkToSelf(@PathVariable Long id) {
-        User actor = getAuthenticatedUser();
-        Task linked = taskService.linkToSelf(id, actor);
-        return ResponseEntity.ok(TaskResponse.fromEntity(linked));
+    public ResponseEntity<TaskResponse> linkToSelf(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        return withETag(taskService.linkToSelf(id, actor, TaskETags.parseIfMatch(ifMatch)));
     }
 
+    /**
+     * Leitura condicional: com {@code If-None-Match} igual ao ETag atual, retorna 304
+     * sem carregar nem serializar a tarefa. {@code fields} (ex.: {@code id,title,status})
+     * restringe as colunas lidas e os campos do JSON.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> getById(@PathVariable Long id) {
-        Task task = taskService.getByIdOrThrow(id);
-        return ResponseEntity.ok(TaskResponse.fromEntity(task));
+    public ResponseEntity<TaskResponse> getById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest
+    ) {
+        Set<TaskField> selected = TaskField.parse(fields);
+        String etag = taskService.getETagOrThrow(id, selected);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(TaskField.select(taskService.getResponseByIdOrThrow(id, selected), selected));
     }
 
+    /**
+     * Listagem completa. {@code fields} (ex.: {@code id,title,deadline,priority,status}) restringe
+     * as colunas lidas e os campos do JSON; sem ele, todos os campos são retornados.
+     */
     @GetMapping
     public ResponseEntity<List<TaskResponse>> search(
             @RequestParam(required = false) String title,
@@ -109,34 +158,174 @@ public class TaskController {
             @RequestParam(required = false) TaskPriority priority,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
-            @RequestParam(required = false, defaultValue = "true") Boolean onlyNotConcluded
+            @RequestParam(required = false, defaultValue = "true") Boolean onlyNotConcluded,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest
     ) {
-        User actor = getAuthenticatedUser();
+        AuthenticatedUser actor = getAuthenticatedUser();
+        Set<TaskField> selected = TaskField.parse(fields);
 
-        boolean isAdmin = actor.getRoles() != null && actor.getRoles().contains("ROLE_ADMIN");
-        Long ownerIdFilter = isAdmin ? null : actor.getId();
+        Long ownerIdFilter = actor.isAdmin() ? null : actor.getId();
 
-        List<Task> tasks = taskService.search(
+        String etag = taskService.getCollectionETag(
                 title,
                 responsible,
                 priority,
                 deadlineFrom,
                 deadlineTo,
                 ownerIdFilter,
-                onlyNotConcluded
+                onlyNotConcluded,
+                selected
         );
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag);
+        }
 
-        List<TaskResponse> response = tasks.stream()
-                .map(TaskResponse::fromEntity)
-                .toList();
+        List<TaskResponse> response = taskService.searchResponses(
+                title,
+                responsible,
+                priority,
+                deadlineFrom,
+                deadlineTo,
+                ownerIdFilter,
+                onlyNotConcluded,
+                selected
+        );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(TaskField.select(response, selected));
     }
 
-    private User getAuthenticatedUser() {
+    /**
+     * Listagem paginada por cursor: ativada quando o parâmetro {@code limit} é informado.
+     * O campo {@code nextCursor} da resposta deve ser enviado em {@code after} para obter a próxima página.
+     * Aceita o mesmo {@code fields} da listagem completa.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<TaskPageResponse> searchPage(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String responsible,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(required = false, defaultValue = "true") Boolean onlyNotConcluded,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) String fields
+    ) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        Set<TaskField> selected = TaskField.parse(fields);
+
+        Long ownerIdFilter = actor.isAdmin() ? null : actor.getId();
+
+        TaskPage page = taskService.searchPage(
+                title,
+                responsible,
+                priority,
+                deadlineFrom,
+                deadlineTo,
+                ownerIdFilter,
+                onlyNotConcluded,
+                after,
+                limit,
+                selected
+        );
+
+        return ResponseEntity.ok(TaskPageResponse.fromPage(page, selected));
+    }
+
+    /**
+     * Exporta as tarefas do filtro (mesmos parâmetros de {@code GET /tasks}) em NDJSON ou CSV.
+     * O conteúdo é transmitido à medida que as linhas são lidas do banco, sem montar a lista em memória.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String responsible,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(required = false, defaultValue = "true") Boolean onlyNotConcluded,
+            @RequestParam(required = false, defaultValue = "ndjson") String format
+    ) {
+        AuthenticatedUser actor = getAuthenticatedUser();
+        TaskExportFormat exportFormat = TaskExportFormat.fromValue(format);
+
+        Long ownerIdFilter = actor.isAdmin() ? null : actor.getId();
+
+        StreamingResponseBody body = out -> taskExportService.export(
+                title,
+                responsible,
+                priority,
+                deadlineFrom,
+                deadlineTo,
+                ownerIdFilter,
+                onlyNotConcluded,
+                exportFormat,
+                out
+        );
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Importa tarefas a partir de um arquivo CSV enviado no campo {@code file}.
+     * O arquivo é processado em streaming; a resposta traz o resumo e os erros por linha.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TaskImportResponse> importCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(taskImportService.importCsv(input));
+        }
+    }
+
+    /**
+     * Contagens por status, prioridade, atrasadas e com prazo na semana, gerais e por responsável,
+     * lidas de contadores em memória (sem varrer a tabela de tarefas).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsResponse> stats() {
+        return ResponseEntity.ok(taskStatsService.getStats(getAuthenticatedUser()));
+    }
+
+    /**
+     * Feed de alterações (Server-Sent Events): eventos {@code CREATED}, {@code UPDATED} e {@code DELETED}
+     * com a tarefa no corpo, restritos às tarefas que o usuário enxerga na listagem.
+     * Substitui o polling de {@code GET /tasks}; após uma reconexão, o cliente deve recarregar a listagem.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return taskChangeStream.subscribe(getAuthenticatedUser());
+    }
+
+    /**
+     * Resposta de escrita com o ETag da nova versão, para ser usado no próximo If-Match.
+     */
+    private ResponseEntity<TaskResponse> withETag(TaskResponse task) {
+        return ResponseEntity.ok()
+                .eTag(TaskETags.forTask(task.getVersion()))
+                .body(task);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    /**
+     * Principal montado pelo {@link com.esig.desafio.auth.JwtAuthenticationFilter}; não consulta o banco.
+     */
+    private AuthenticatedUser getAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userService.getByEmailOrThrow(email);
+        return (AuthenticatedUser) authentication.getPrincipal();
     }
 }
 
@@ -0,0 +1,49 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset de tarefas.
+ * Guarda a posição da última tarefa retornada na mesma ordem usada na listagem:
+ * deadline, ranking da prioridade e id.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate deadline;
+    private final int priorityRank;
+    private final Long id;
+
+    public String encode() {
+        String raw = deadline + SEPARATOR + priorityRank + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            return new TaskCursor(
+                    LocalDate.parse(parts[0]),
+                    Integer.parseInt(parts[1]),
+                    Long.parseLong(parts[2])
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+}
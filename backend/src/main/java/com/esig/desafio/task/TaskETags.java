@@ -0,0 +1,83 @@
+package com.esig.desafio.task;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Geração de ETags fortes para as leituras de tarefas.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    /**
+     * ETag de uma tarefa: a própria versão ({@code @Version}), incrementada a cada alteração.
+     * O mesmo valor é aceito de volta em {@code If-Match}.
+     */
+    static String forTask(Long version) {
+        return quote(String.valueOf(version));
+    }
+
+    /**
+     * ETag de uma leitura com {@code fields=}: a versão seguida do hash dos campos selecionados
+     * (ex.: {@code "3-1a2b3c4d"}), para que projeções diferentes da mesma versão não compartilhem o
+     * validador. Com todos os campos, igual a {@link #forTask(Long)}. Também aceito em {@code If-Match}.
+     */
+    static String forTask(Long version, Set<TaskField> fields) {
+        if (fields.containsAll(TaskField.ALL)) {
+            return forTask(version);
+        }
+        return quote(version + "-" + fieldsKey(fields).substring(0, 8));
+    }
+
+    /**
+     * Versão esperada informada em {@code If-Match}. Retorna nulo quando o header está ausente ou
+     * é {@code *} (qualquer versão). ETags fracos não servem para {@code If-Match} e são recusados.
+     * O sufixo de projeção de {@link #forTask(Long, Set)} é ignorado.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            String tag = value.substring(1, value.length() - 1);
+            int projection = tag.indexOf('-');
+            try {
+                return Long.parseLong(projection > 0 ? tag.substring(0, projection) : tag);
+            } catch (NumberFormatException ex) {
+                // cai na mensagem abaixo
+            }
+        }
+        throw new IllegalArgumentException("Header If-Match inválido: informe o ETag retornado pela API (ex.: \"3\").");
+    }
+
+    /**
+     * ETag de uma listagem: combina o filtro aplicado e os campos selecionados com a quantidade de
+     * linhas e o maior {@code updatedAt}; inclusões, alterações e remoções dentro do filtro alteram o valor.
+     */
+    static String forCollection(String filterKey, Set<TaskField> fields, TaskCollectionVersion version) {
+        String raw = filterKey + "|" + fieldsKey(fields) + "|" + version.getCount() + "|" + version.getLastUpdatedAt();
+        return quote(DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Hash dos campos na ordem do enum, independente da ordem em que vieram em {@code fields=}.
+     */
+    private static String fieldsKey(Set<TaskField> fields) {
+        String names = fields.stream()
+                .sorted()
+                .map(TaskField::getName)
+                .collect(Collectors.joining(","));
+        return DigestUtils.md5DigestAsHex(names.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,128 @@
+package com.esig.desafio.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de tarefas em NDJSON ou CSV com uso de memória constante.
+ *
+ * As linhas são lidas por um cursor JDBC ({@link TaskRepositoryCustom#streamAll}), escritas
+ * diretamente no {@link OutputStream} da resposta e desanexadas do contexto de persistência
+ * logo em seguida, de modo que nenhuma lista de tarefas é mantida em memória.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String CSV_HEADER =
+            "id,title,description,responsible,priority,deadline,status,responsibleId,createdAt,updatedAt";
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Aplica os mesmos filtros de {@link TaskService#search} e escreve o resultado em {@code out},
+     * na mesma ordem da listagem.
+     */
+    @Transactional(readOnly = true)
+    public void export(
+            String title,
+            String responsible,
+            TaskPriority priority,
+            LocalDate deadlineFrom,
+            LocalDate deadlineTo,
+            Long ownerId,
+            Boolean onlyNotConcluded,
+            TaskExportFormat format,
+            OutputStream out
+    ) throws IOException {
+        Specification<Task> spec = taskService.buildSpecification(
+                title, responsible, priority, deadlineFrom, deadlineTo, ownerId, onlyNotConcluded);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(TaskResponse.class);
+
+        if (format == TaskExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Task> tasks = taskRepository.streamAll(spec, TaskService.LISTING_ORDER, FETCH_SIZE)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                TaskResponse row = TaskResponse.fromEntity(task);
+                entityManager.detach(task);
+
+                if (format == TaskExportFormat.CSV) {
+                    writeCsvLine(writer, row);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, TaskResponse row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csv(row.getTitle()));
+        writer.write(',');
+        writer.write(csv(row.getDescription()));
+        writer.write(',');
+        writer.write(csv(row.getResponsible()));
+        writer.write(',');
+        writer.write(csv(row.getPriority()));
+        writer.write(',');
+        writer.write(csv(row.getDeadline()));
+        writer.write(',');
+        writer.write(csv(row.getStatus()));
+        writer.write(',');
+        writer.write(csv(row.getResponsibleId()));
+        writer.write(',');
+        writer.write(csv(row.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(row.getUpdatedAt()));
+        writer.write('\n');
+    }
+
+    /**
+     * Formata um campo CSV (RFC 4180): valores com vírgula, aspas ou quebra de linha são
+     * envolvidos em aspas, com aspas internas duplicadas.
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,103 @@
+package com.esig.desafio.task;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de {@link TaskResponse} selecionáveis com {@code fields=} em {@code GET /tasks} e
+ * {@code GET /tasks/{id}}. Cada campo sabe qual coluna ler na consulta e como preenchê-lo na resposta,
+ * de modo que colunas não pedidas (ex.: a {@code description}, TEXT sem limite) nem saem do banco.
+ */
+@Getter
+public enum TaskField {
+
+    ID("id", root -> root.get("id"), TaskResponse::getId, (b, v) -> b.id((Long) v)),
+    TITLE("title", root -> root.get("title"), TaskResponse::getTitle, (b, v) -> b.title((String) v)),
+    DESCRIPTION("description", root -> root.get("description"), TaskResponse::getDescription, (b, v) -> b.description((String) v)),
+    RESPONSIBLE("responsible", root -> root.get("responsible"), TaskResponse::getResponsible, (b, v) -> b.responsible((String) v)),
+    PRIORITY("priority", root -> root.get("priority"), TaskResponse::getPriority, (b, v) -> b.priority((TaskPriority) v)),
+    DEADLINE("deadline", root -> root.get("deadline"), TaskResponse::getDeadline, (b, v) -> b.deadline((LocalDate) v)),
+    STATUS("status", root -> root.get("status"), TaskResponse::getStatus, (b, v) -> b.status((TaskStatus) v)),
+    // Lido da FK user_id, sem join com users.
+    RESPONSIBLE_ID("responsibleId", root -> root.get("user").get("id"), TaskResponse::getResponsibleId, (b, v) -> b.responsibleId((Long) v)),
+    CREATED_AT("createdAt", root -> root.get("createdAt"), TaskResponse::getCreatedAt, (b, v) -> b.createdAt((LocalDateTime) v)),
+    UPDATED_AT("updatedAt", root -> root.get("updatedAt"), TaskResponse::getUpdatedAt, (b, v) -> b.updatedAt((LocalDateTime) v)),
+    VERSION("version", root -> root.get("version"), TaskResponse::getVersion, (b, v) -> b.version((Long) v));
+
+    /**
+     * Todos os campos: comportamento sem {@code fields=}.
+     */
+    public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+    /**
+     * Campos usados para montar o cursor da listagem paginada; sempre lidos do banco.
+     */
+    static final Set<TaskField> CURSOR = Collections.unmodifiableSet(EnumSet.of(ID, PRIORITY, DEADLINE));
+
+    /**
+     * Nome do campo no JSON e no parâmetro {@code fields}.
+     */
+    private final String name;
+    private final Function<Root<Task>, Path<?>> column;
+    private final Function<TaskResponse, Object> getter;
+    private final BiConsumer<TaskResponse.TaskResponseBuilder, Object> setter;
+
+    TaskField(
+            String name,
+            Function<Root<Task>, Path<?>> column,
+            Function<TaskResponse, Object> getter,
+            BiConsumer<TaskResponse.TaskResponseBuilder, Object> setter
+    ) {
+        this.name = name;
+        this.column = column;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Interpreta o parâmetro {@code fields} (nomes separados por vírgula). Vazio ou nulo seleciona todos.
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        EnumSet<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.name.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Campo desconhecido em fields: " + trimmed
+                            + ". Valores aceitos: " + Arrays.stream(values()).map(TaskField::getName)
+                            .collect(Collectors.joining(", ")) + ".")));
+        }
+        return selected.isEmpty() ? ALL : selected;
+    }
+
+    /**
+     * Resposta que serializa apenas os campos selecionados; com todos os campos, a própria tarefa.
+     */
+    public static TaskResponse select(TaskResponse task, Set<TaskField> fields) {
+        return fields.containsAll(ALL) ? task : new PartialTaskResponse(task, fields);
+    }
+
+    public static List<TaskResponse> select(List<TaskResponse> tasks, Set<TaskField> fields) {
+        return fields.containsAll(ALL) ? tasks : tasks.stream().map(task -> select(task, fields)).toList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TaskImportError {
+
+    private final long line;
+    private final String message;
+}
@@ -0,0 +1,20 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Resumo da importação. {@code errors} traz no máximo {@link TaskImportService#MAX_REPORTED_ERRORS}
+ * itens; {@code failed} sempre contabiliza todas as linhas rejeitadas.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskImportResponse {
+
+    private final long totalRows;
+    private final long imported;
+    private final long failed;
+    private final List<TaskImportError> errors;
+}
@@ -0,0 +1,256 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.user.User;
+import com.esig.desafio.user.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de tarefas a partir de CSV.
+ *
+ * O arquivo é lido registro a registro; cada linha é validada com as mesmas regras de
+ * {@link TaskRequest} e acumulada em blocos de {@link #BATCH_SIZE}. Para cada bloco, os e-mails
+ * de responsáveis ainda desconhecidos são resolvidos em uma única consulta e as tarefas são
+ * gravadas em uma transação própria, com INSERTs agrupados em batches JDBC. Apenas o bloco
+ * corrente fica em memória. Cada tarefa gravada publica um {@link TaskChangeEvent}, entregue após o
+ * commit do bloco, como em {@link TaskService#create}.
+ *
+ * Erros de leitura ou validação são reportados por linha: os blocos já gravados continuam
+ * valendo e o resumo sempre reflete o que foi efetivamente importado.
+ *
+ * Colunas aceitas (cabeçalho obrigatório, em qualquer ordem):
+ * title, priority, deadline (obrigatórias) e description, status, responsibleEmail (opcionais).
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+
+    static final int BATCH_SIZE = 500;
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String PRIORITY = "priority";
+    private static final String DEADLINE = "deadline";
+    private static final String STATUS = "status";
+    private static final String RESPONSIBLE_EMAIL = "responsibleemail";
+
+    private final UserService userService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskImportResponse importCsv(InputStream input) throws IOException {
+        TaskCsvReader reader = new TaskCsvReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio.");
+        }
+        Map<String, Integer> columns = indexColumns(header);
+
+        ImportState state = new ImportState();
+        List<PendingRow> chunk = new ArrayList<>(BATCH_SIZE);
+
+        while (true) {
+            List<String> fields;
+            try {
+                fields = reader.next();
+            } catch (IllegalArgumentException ex) {
+                // Registro malformado (ex.: aspas não fechadas) consome o restante do arquivo.
+                state.totalRows++;
+                state.reject(reader.getRecordLine(), ex.getMessage());
+                break;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            state.totalRows++;
+            long line = reader.getRecordLine();
+
+            try {
+                TaskRequest request = toRequest(fields, columns);
+                requireValid(request);
+                String email = value(fields, columns, RESPONSIBLE_EMAIL);
+                chunk.add(new PendingRow(line, request, email != null ? email.toLowerCase(Locale.ROOT) : null));
+            } catch (IllegalArgumentException ex) {
+                state.reject(line, ex.getMessage());
+            }
+
+            if (chunk.size() == BATCH_SIZE) {
+                persist(chunk, state);
+                chunk.clear();
+            }
+        }
+        persist(chunk, state);
+
+        return new TaskImportResponse(state.totalRows, state.imported, state.failed, state.errors);
+    }
+
+    private void persist(List<PendingRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> unresolved = new HashSet<>();
+        for (PendingRow row : chunk) {
+            if (row.email != null && !state.responsibles.containsKey(row.email)) {
+                unresolved.add(row.email);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            for (User user : userService.findByEmails(unresolved)) {
+                state.responsibles.put(user.getEmail().toLowerCase(Locale.ROOT), user);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            long persisted = 0;
+            for (PendingRow row : chunk) {
+                User responsible = null;
+                if (row.email != null) {
+                    responsible = state.responsibles.get(row.email);
+                    if (responsible == null) {
+                        state.reject(row.line, "Responsável não encontrado: " + row.email);
+                        continue;
+                    }
+                }
+
+                Task task = row.request.toEntity(null);
+                if (responsible != null) {
+                    task.setUser(userService.getReference(responsible.getId()));
+                    task.setResponsible(responsible.getName());
+                }
+                entityManager.persist(task);
+                eventPublisher.publishEvent(TaskChangeEvent.created(task));
+                persisted++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+            state.imported += persisted;
+        });
+    }
+
+    private Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of(TITLE, PRIORITY, DEADLINE)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho do CSV: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private TaskRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(value(fields, columns, TITLE));
+        request.setDescription(value(fields, columns, DESCRIPTION));
+        request.setPriority(parseEnum(TaskPriority.class, value(fields, columns, PRIORITY), PRIORITY));
+        request.setStatus(parseEnum(TaskStatus.class, value(fields, columns, STATUS), STATUS));
+
+        String deadline = value(fields, columns, DEADLINE);
+        if (deadline != null) {
+            try {
+                request.setDeadline(LocalDate.parse(deadline));
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("deadline: data inválida (use o formato AAAA-MM-DD): " + deadline);
+            }
+        }
+        return request;
+    }
+
+    private void requireValid(TaskRequest request) {
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private String value(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(column + ": valor inválido: " + value);
+        }
+    }
+
+    private static class PendingRow {
+
+        private final long line;
+        private final TaskRequest request;
+        private final String email;
+
+        private PendingRow(long line, TaskRequest request, String email) {
+            this.line = line;
+            this.request = request;
+            this.email = email;
+        }
+    }
+
+    /**
+     * Contadores da importação e responsáveis já resolvidos (apenas id e nome são usados).
+     */
+    private static class ImportState {
+
+        private final Map<String, User> responsibles = new HashMap<>();
+        private final List<TaskImportError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TaskImportError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página de tarefas obtida via paginação por cursor.
+ * {@code nextCursor} é nulo quando não há mais tarefas após esta página.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskPage {
+
+    private final List<TaskResponse> items;
+    private final String nextCursor;
+}
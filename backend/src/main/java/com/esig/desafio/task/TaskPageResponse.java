@@ -0,0 +1,26 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class TaskPageResponse {
+
+    private final List<TaskResponse> items;
+    private final String nextCursor;
+
+    public static TaskPageResponse fromPage(TaskPage page) {
+        return fromPage(page, TaskField.ALL);
+    }
+
+    /**
+     * Página com os itens restritos aos campos selecionados (ver {@link TaskField#select}).
+     */
+    public static TaskPageResponse fromPage(TaskPage page, Set<TaskField> fields) {
+        return new TaskPageResponse(TaskField.select(page.getItems(), fields), page.getNextCursor());
+    }
+}
@@ -1,9 +1,21 @@
 package com.esig.desafio.task;
 
 public enum TaskPriority {
-    ALTA,
-    MEDIA,
-    BAIXA
-}
+    ALTA(1),
+    MEDIA(2),
+    BAIXA(3);
+
+    /**
+     * Ranking usado na ordenação da listagem (menor valor = maior prioridade).
+     * Persistido na coluna {@code priority_rank} de {@code tasks}.
+     */
+    private final int rank;
 
+    TaskPriority(int rank) {
+        this.rank = rank;
+    }
 
+    public int getRank() {
+        return rank;
+    }
+}
@@ -1,9 +1,38 @@
 package com.esig.desafio.task;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
-}
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 
+    /**
+     * Leitura com {@code SELECT ... FOR UPDATE}, para atualizações: a linha fica bloqueada até o fim
+     * da transação em andamento.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Quantidade de tarefas por responsável, status, prioridade e prazo, para reconstruir os
+     * contadores de {@link TaskStatsService}.
+     */
+    @Query("""
+            select new com.esig.desafio.task.TaskStatsRow(u.id, t.status, t.priority, t.deadline, count(t))
+            from Task t left join t.user u
+            group by u.id, t.status, t.priority, t.deadline
+            """)
+    List<TaskStatsRow> countGroupedForStats();
+}
@@ -0,0 +1,65 @@
+package com.esig.desafio.task;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Percorre as tarefas do filtro com um cursor JDBC forward-only, buscando {@code fetchSize}
+     * linhas por ida ao banco. Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    Stream<Task> streamAll(Specification<Task> spec, Sort sort, int fetchSize);
+
+    /**
+     * Consulta de leitura que projeta as colunas diretamente em {@link TaskResponse}, sem
+     * materializar entidades {@link Task} (nem o proxy de {@code user}: o responsibleId vem da FK).
+     * Apenas as colunas de {@code fields} são lidas; os demais campos ficam nulos.
+     * {@code limit} menor ou igual a zero indica sem limite.
+     */
+    List<TaskResponse> findResponses(Specification<Task> spec, Sort sort, int limit, Set<TaskField> fields);
+
+    default List<TaskResponse> findResponses(Specification<Task> spec, Sort sort, int limit) {
+        return findResponses(spec, sort, limit, TaskField.ALL);
+    }
+
+    Optional<TaskResponse> findResponseById(Long id, Set<TaskField> fields);
+
+    default Optional<TaskResponse> findResponseById(Long id) {
+        return findResponseById(id, TaskField.ALL);
+    }
+
+    /**
+     * Quantidade de tarefas do filtro e maior {@code updatedAt}, em uma única consulta agregada.
+     */
+    TaskCollectionVersion findCollectionVersion(Specification<Task> spec);
+
+    // Mutações condicionais: as regras de permissão ficam no WHERE e a linha alterada volta no
+    // próprio comando (RETURNING), em uma única ida ao banco. Vazio indica que nenhuma linha
+    // atendeu às condições (tarefa inexistente, operação não permitida ou, quando
+    // expectedVersion é informado, versão diferente da atual).
+
+    /**
+     * Conclui a tarefa se ainda não estiver concluída e o usuário for admin ou o responsável.
+     */
+    Optional<TaskResponse> completeIfAllowed(Long id, Long actorId, boolean admin, Long expectedVersion, LocalDateTime now);
+
+    /**
+     * Remove a tarefa se o usuário for admin, ou o responsável por uma tarefa não concluída.
+     * Retorna o último estado da tarefa removida.
+     */
+    Optional<TaskResponse> deleteIfAllowed(Long id, Long actorId, boolean admin, Long expectedVersion);
+
+    /**
+     * Vincula o usuário como responsável se a tarefa não estiver concluída e ainda não tiver
+     * responsável. Entre requisições concorrentes para a mesma tarefa, apenas uma é bem-sucedida.
+     */
+    Optional<TaskResponse> claimIfUnassigned(
+            Long id, Long actorId, String actorName, Long expectedVersion, LocalDateTime now);
+}
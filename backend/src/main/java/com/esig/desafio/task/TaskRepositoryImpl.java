@@ -0,0 +1,204 @@
+package com.esig.desafio.task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final String RETURNING =
+            " returning id, title, description, responsible, priority, deadline, status, user_id, created_at, updated_at, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Task> streamAll(Specification<Task> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(Specification<Task> spec, Sort sort, int limit, Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+
+        // Somente as colunas dos campos pedidos entram no SELECT.
+        List<TaskField> selected = List.copyOf(fields);
+        query.multiselect(selected.stream()
+                .<Selection<?>>map(field -> field.getColumn().apply(root))
+                .toList());
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(tuple -> {
+                    TaskResponse.TaskResponseBuilder builder = TaskResponse.builder();
+                    for (int i = 0; i < selected.size(); i++) {
+                        selected.get(i).getSetter().accept(builder, tuple.get(i));
+                    }
+                    return builder.build();
+                })
+                .toList();
+    }
+
+    @Override
+    public Optional<TaskResponse> findResponseById(Long id, Set<TaskField> fields) {
+        Specification<Task> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return findResponses(byId, Sort.unsorted(), 1, fields).stream().findFirst();
+    }
+
+    @Override
+    public TaskCollectionVersion findCollectionVersion(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskCollectionVersion> query = cb.createQuery(TaskCollectionVersion.class);
+        Root<Task> root = query.from(Task.class);
+
+        query.select(cb.construct(
+                TaskCollectionVersion.class,
+                cb.count(root),
+                cb.greatest(root.<LocalDateTime>get("updatedAt"))
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskResponse> completeIfAllowed(
+            Long id, Long actorId, boolean admin, Long expectedVersion, LocalDateTime now) {
+        Query query = entityManager.createNativeQuery(
+                        "update tasks set status = 'CONCLUIDA', updated_at = :now, version = version + 1"
+                                + " where id = :id and status <> 'CONCLUIDA' and (:admin or user_id = :actorId)"
+                                + versionCondition(expectedVersion)
+                                + RETURNING)
+                .setParameter("now", now)
+                .setParameter("id", id)
+                .setParameter("admin", admin)
+                .setParameter("actorId", actorId);
+        return executeReturning(query, expectedVersion);
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskResponse> deleteIfAllowed(Long id, Long actorId, boolean admin, Long expectedVersion) {
+        Query query = entityManager.createNativeQuery(
+                        "delete from tasks"
+                                + " where id = :id and (:admin or (status <> 'CONCLUIDA' and user_id = :actorId))"
+                                + versionCondition(expectedVersion)
+                                + RETURNING)
+                .setParameter("id", id)
+                .setParameter("admin", admin)
+                .setParameter("actorId", actorId);
+        return executeReturning(query, expectedVersion);
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskResponse> claimIfUnassigned(
+            Long id, Long actorId, String actorName, Long expectedVersion, LocalDateTime now) {
+        Query query = entityManager.createNativeQuery(
+                        "update tasks set user_id = :actorId, responsible = :actorName, updated_at = :now,"
+                                + " version = version + 1"
+                                + " where id = :id and status <> 'CONCLUIDA' and user_id is null"
+                                + versionCondition(expectedVersion)
+                                + RETURNING)
+                .setParameter("actorId", actorId)
+                .setParameter("actorName", actorName)
+                .setParameter("now", now)
+                .setParameter("id", id);
+        return executeReturning(query, expectedVersion);
+    }
+
+    private static String versionCondition(Long expectedVersion) {
+        return expectedVersion != null ? " and version = :expectedVersion" : "";
+    }
+
+    /**
+     * Executa o comando com RETURNING e mapeia a linha retornada. Alterações pendentes são enviadas
+     * antes e o contexto de persistência é limpo depois, para que entidades já carregadas na mesma
+     * transação (ex.: em /tasks/batch) não sobrescrevam a linha com um estado antigo.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<TaskResponse> executeReturning(Query query, Long expectedVersion) {
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        entityManager.flush();
+
+        List<Object[]> rows = query.unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("responsible", String.class)
+                .addScalar("priority", String.class)
+                .addScalar("deadline", LocalDate.class)
+                .addScalar("status", String.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("version", Long.class)
+                .getResultList();
+
+        entityManager.clear();
+
+        return rows.stream().findFirst().map(row -> new TaskResponse(
+                (Long) row[0],
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                TaskPriority.valueOf((String) row[4]),
+                (LocalDate) row[5],
+                TaskStatus.valueOf((String) row[6]),
+                (Long) row[7],
+                (LocalDateTime) row[8],
+                (LocalDateTime) row[9],
+                (Long) row[10]
+        ));
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import com.esig.desafio.user.User;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -38,6 +39,19 @@ public class TaskRequest {
      * Opcional: se não vier, o backend assumirá EM_ANDAMENTO.
      */
     private TaskStatus status;
-}
-
 
+    /**
+     * Monta a tarefa a ser criada; sem responsável quando {@code responsibleUser} é nulo.
+     */
+    public Task toEntity(User responsibleUser) {
+        return Task.builder()
+                .title(title)
+                .description(description)
+                .responsible(responsibleUser != null ? responsibleUser.getName() : "")
+                .priority(priority)
+                .deadline(deadline)
+                .status(status)
+                .user(responsibleUser)
+                .build();
+    }
+}
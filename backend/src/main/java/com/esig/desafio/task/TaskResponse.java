@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class TaskResponse {
 
     private final Long id;
@@ -22,6 +22,7 @@ public class TaskResponse {
     private final Long responsibleId;
     private final LocalDateTime createdAt;
     private final LocalDateTime updatedAt;
+    private final Long version;
 
     public static TaskResponse fromEntity(Task task) {
         return TaskResponse.builder()
@@ -35,6 +36,7 @@ public class TaskResponse {
                 .responsibleId(task.getUser() != null ? task.getUser().getId() : null)
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
 }
@@ -1,30 +1,71 @@
 package com.esig.desafio.task;
 
-import com.esig.desafio.user.User;
+import com.esig.desafio.auth.AuthenticatedUser;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Path;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed("tasks.service")
 @RequiredArgsConstructor
 public class TaskService {
 
+    /**
+     * Tamanho máximo de página aceito na listagem paginada por cursor.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Ordem da listagem: prazo mais próximo, maior prioridade e id (desempate estável).
+     * Coberta pelos índices idx_tasks_open_listing (tarefas abertas) e idx_tasks_listing (V5).
+     */
+    static final Sort LISTING_ORDER = Sort.by("deadline", "priorityRank", "id");
+
+    private static final String CONCURRENT_CHANGE_MESSAGE =
+            "A tarefa foi alterada por outra requisição. Tente novamente.";
+
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
-    public Task create(Task task, User actor) {
+    public Task create(Task task, AuthenticatedUser actor) {
         // Na criação, qualquer usuário autenticado pode criar tarefas.
-        return taskRepository.save(task);
+        Task created = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangeEvent.created(created));
+        return created;
     }
 
-    public Task update(Long id, Task updatedData, User actor) {
-        Task existing = getByIdOrThrow(id);
+    /**
+     * Atualização parcial. Com {@code expectedVersion} (vindo de {@code If-Match}), a alteração só é
+     * aplicada se a tarefa ainda estiver nessa versão; o {@code @Version} da entidade também recusa
+     * a gravação se outra requisição alterar a tarefa entre a leitura e o save.
+     *
+     * A tarefa é lida com bloqueio da linha: dentro de uma transação maior (lote), ninguém a altera
+     * entre a leitura e o flush, e um conflito só pode ser o do {@code If-Match} do próprio item.
+     */
+    public Task update(Long id, Task updatedData, AuthenticatedUser actor, Long expectedVersion) {
+        Task existing = taskRepository
+                .findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada com id: " + id));
+        TaskResponse previous = TaskResponse.fromEntity(existing);
 
         // Fluxo especial: tarefa sem responsável e usuário está apenas se vinculando a si mesmo.
         if (existing.getUser() == null
@@ -36,12 +77,14 @@ public class TaskService {
                 && updatedData.getPriority() == null
                 && updatedData.getDeadline() == null
                 && updatedData.getStatus() == null) {
-            existing.setUser(actor);
-            existing.setResponsible(actor.getName());
-            return taskRepository.save(existing);
+            ensureVersion(existing, expectedVersion);
+            existing.setUser(updatedData.getUser());
+            existing.setResponsible(updatedData.getUser().getName());
+            return saveAndPublish(existing, previous);
         }
 
         ensureCanModify(existing, actor);
+        ensureVersion(existing, expectedVersion);
 
         if (updatedData.getTitle() != null) {
             existing.setTitle(updatedData.getTitle());
@@ -69,35 +112,65 @@ public class TaskService {
             existing.setResponsible(updatedData.getUser().getName());
         }
 
-        return taskRepository.save(existing);
+        return saveAndPublish(existing, previous);
     }
 
-    public void delete(Long id, User actor) {
-        Task existing = getByIdOrThrow(id);
-        ensureCanModify(existing, actor);
-        taskRepository.delete(existing);
+    /**
+     * Remoção em um único DELETE condicional. Quando nenhuma linha é removida, a tarefa é lida
+     * apenas para decidir entre 404, 403 e 412.
+     */
+    public void delete(Long id, AuthenticatedUser actor, Long expectedVersion) {
+        TaskResponse deleted = taskRepository
+                .deleteIfAllowed(id, actor.getId(), actor.isAdmin(), expectedVersion)
+                .orElseThrow(() -> rejected(getByIdOrThrow(id), actor, expectedVersion));
+
+        eventPublisher.publishEvent(TaskChangeEvent.deleted(deleted));
     }
 
-    public Task complete(Long id, User actor) {
-        Task existing = getByIdOrThrow(id);
-        ensureCanModify(existing, actor);
-        existing.setStatus(TaskStatus.CONCLUIDA);
-        return taskRepository.save(existing);
+    /**
+     * Conclusão em um único UPDATE condicional. Concluir novamente uma tarefa já concluída
+     * (possível apenas para admin) retorna a tarefa sem alterá-la.
+     */
+    public TaskResponse complete(Long id, AuthenticatedUser actor, Long expectedVersion) {
+        Optional<TaskResponse> completed = taskRepository
+                .completeIfAllowed(id, actor.getId(), actor.isAdmin(), expectedVersion, LocalDateTime.now());
+
+        if (completed.isEmpty()) {
+            Task existing = getByIdOrThrow(id);
+            if (actor.isAdmin() && existing.getStatus() == TaskStatus.CONCLUIDA) {
+                ensureVersion(existing, expectedVersion);
+                return TaskResponse.fromEntity(existing);
+            }
+            throw rejected(existing, actor, expectedVersion);
+        }
+
+        // O WHERE garante que a tarefa estava em andamento antes da conclusão.
+        TaskResponse previous = completed.get().toBuilder().status(TaskStatus.EM_ANDAMENTO).build();
+        eventPublisher.publishEvent(TaskChangeEvent.updated(completed.get(), previous));
+        return completed.get();
     }
 
     /**
      * Vincula o usuário autenticado como responsável por uma tarefa que ainda não possui responsável.
-     * Aplicável principalmente para ROLE_USER.
+     * Aplicável principalmente para ROLE_USER; admin normalmente utilizará o fluxo de edição completo,
+     * mas também pode se vincular por aqui.
+     *
+     * O vínculo é um único UPDATE condicionado a "sem responsável": se dois usuários disputarem a
+     * mesma tarefa, apenas o primeiro é vinculado e o segundo recebe 403.
      */
-    public Task linkToSelf(Long id, User actor) {
-        Task existing = getByIdOrThrow(id);
-
-        boolean isAdmin = actor.getRoles() != null && actor.getRoles().contains("ROLE_ADMIN");
-        if (isAdmin) {
-            // Admin normalmente utilizará o fluxo de edição completo; ainda assim,
-            // se usar este endpoint, permitimos vinculá-lo a si mesmo.
+    public TaskResponse linkToSelf(Long id, AuthenticatedUser actor, Long expectedVersion) {
+        Optional<TaskResponse> claimed = taskRepository
+                .claimIfUnassigned(id, actor.getId(), actor.getDisplayName(), expectedVersion, LocalDateTime.now());
+
+        if (claimed.isPresent()) {
+            // O WHERE garante que a tarefa não tinha responsável antes do vínculo.
+            TaskResponse previous = claimed.get().toBuilder().responsibleId(null).build();
+            eventPublisher.publishEvent(TaskChangeEvent.updated(claimed.get(), previous));
+            return claimed.get();
         }
 
+        Task existing = getByIdOrThrow(id);
+
         if (existing.getStatus() == TaskStatus.CONCLUIDA) {
             throw new AccessDeniedException("Não é possível vincular responsável em tarefas concluídas.");
         }
@@ -106,10 +179,67 @@ public class TaskService {
             throw new AccessDeniedException("Tarefa já possui responsável.");
         }
 
-        existing.setUser(actor);
-        existing.setResponsible(actor.getName());
+        ensureVersion(existing, expectedVersion);
+
+        if (existing.getUser() != null) {
+            // Já é o responsável: nada a alterar.
+            return TaskResponse.fromEntity(existing);
+        }
 
-        return taskRepository.save(existing);
+        throw new AccessDeniedException(CONCURRENT_CHANGE_MESSAGE);
+    }
+
+    /**
+     * Leitura de uma tarefa já projetada em {@link TaskResponse}, sem hidratar a entidade.
+     * Apenas as colunas de {@code fields} são lidas.
+     */
+    @Transactional(readOnly = true)
+    public TaskResponse getResponseByIdOrThrow(Long id, Set<TaskField> fields) {
+        return taskRepository
+                .findResponseById(id, fields)
+                .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada com id: " + id));
+    }
+
+    /**
+     * ETag atual da tarefa (a versão, mais o hash de {@code fields} quando não são todos os campos),
+     * obtido apenas com a leitura da coluna {@code version}.
+     */
+    @Transactional(readOnly = true)
+    public String getETagOrThrow(Long id, Set<TaskField> fields) {
+        return taskRepository
+                .findVersionById(id)
+                .map(version -> TaskETags.forTask(version, fields))
+                .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada com id: " + id));
+    }
+
+    /**
+     * ETag da listagem para o filtro e os campos informados, calculado com uma consulta agregada
+     * (quantidade e maior {@code updated_at}), sem carregar as tarefas.
+     */
+    @Transactional(readOnly = true)
+    public String getCollectionETag(
+            String title,
+            String responsible,
+            TaskPriority priority,
+            LocalDate deadlineFrom,
+            LocalDate deadlineTo,
+            Long ownerId,
+            Boolean onlyNotConcluded,
+            Set<TaskField> fields
+    ) {
+        Specification<Task> spec = buildSpecification(
+                title, responsible, priority, deadlineFrom, deadlineTo, ownerId, onlyNotConcluded);
+
+        String filterKey = String.join("|",
+                String.valueOf(title),
+                String.valueOf(responsible),
+                String.valueOf(priority),
+                String.valueOf(deadlineFrom),
+                String.valueOf(deadlineTo),
+                String.valueOf(ownerId),
+                String.valueOf(onlyNotConcluded));
+
+        return TaskETags.forCollection(filterKey, fields, taskRepository.findCollectionVersion(spec));
     }
 
     public Task getByIdOrThrow(Long id) {
@@ -118,9 +248,42 @@ public class TaskService {
                 .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada com id: " + id));
     }
 
-    private void ensureCanModify(Task task, User actor) {
-        boolean isAdmin = actor.getRoles() != null && actor.getRoles().contains("ROLE_ADMIN");
-        if (isAdmin) {
+    /**
+     * Grava a tarefa e publica a alteração para o {@link TaskChangeStream}, que só a entrega após o commit.
+     *
+     * O flush imediato aplica o {@code @PreUpdate} e o incremento do {@code @Version} antes de montar o
+     * evento, mesmo dentro de uma transação maior (lote), e faz o conflito de versão ser lançado aqui.
+     */
+    private Task saveAndPublish(Task task, TaskResponse previous) {
+        Task saved = taskRepository.saveAndFlush(task);
+        eventPublisher.publishEvent(TaskChangeEvent.updated(TaskResponse.fromEntity(saved), previous));
+        return saved;
+    }
+
+    /**
+     * Motivo da recusa de uma mutação condicional que não afetou nenhuma linha: as mesmas
+     * mensagens de {@link #ensureCanModify} ou versão diferente da esperada. Se a tarefa lida já
+     * permitir a operação, ela foi alterada por outra requisição entre os dois comandos.
+     */
+    private AccessDeniedException rejected(Task existing, AuthenticatedUser actor, Long expectedVersion) {
+        ensureCanModify(existing, actor);
+        ensureVersion(existing, expectedVersion);
+        return new AccessDeniedException(CONCURRENT_CHANGE_MESSAGE);
+    }
+
+    /**
+     * Compara a versão atual com a informada em {@code If-Match}; nula significa sem pré-condição.
+     */
+    private void ensureVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                    "A tarefa foi alterada por outra requisição (versão atual: " + task.getVersion()
+                            + "). Recarregue a tarefa e tente novamente.");
+        }
+    }
+
+    void ensureCanModify(Task task, AuthenticatedUser actor) {
+        if (actor.isAdmin()) {
             return;
         }
 
@@ -149,6 +312,91 @@ public class TaskService {
             LocalDate deadlineTo,
             Long ownerId,
             Boolean onlyNotConcluded
+    ) {
+        Specification<Task> spec = buildSpecification(
+                title, responsible, priority, deadlineFrom, deadlineTo, ownerId, onlyNotConcluded);
+
+        // Ordenação feita no banco: primeiro pelo prazo mais próximo (deadline asc),
+        // depois pela maior prioridade (ALTA > MEDIA > BAIXA, via priority_rank) e,
+        // por fim, por id para ter ordenação estável.
+        return recordRows("search", taskRepository.findAll(spec, LISTING_ORDER));
+    }
+
+    /**
+     * Mesmo filtro e ordenação de {@link #search}, mas projetando as linhas diretamente em
+     * {@link TaskResponse} em uma transação somente leitura (sem snapshots nem flush do Hibernate).
+     * Apenas as colunas de {@code fields} são lidas.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> searchResponses(
+            String title,
+            String responsible,
+            TaskPriority priority,
+            LocalDate deadlineFrom,
+            LocalDate deadlineTo,
+            Long ownerId,
+            Boolean onlyNotConcluded,
+            Set<TaskField> fields
+    ) {
+        Specification<Task> spec = buildSpecification(
+                title, responsible, priority, deadlineFrom, deadlineTo, ownerId, onlyNotConcluded);
+
+        return recordRows("searchResponses", taskRepository.findResponses(spec, LISTING_ORDER, 0, fields));
+    }
+
+    /**
+     * Lista tarefas com paginação por keyset (cursor), na mesma ordem de {@link #search}.
+     * O banco retorna apenas {@code limit + 1} linhas a partir da posição do cursor {@code after};
+     * a linha extra indica se existe uma próxima página. Além de {@code fields}, são lidos os campos
+     * do cursor ({@link TaskField#CURSOR}).
+     */
+    @Transactional(readOnly = true)
+    public TaskPage searchPage(
+            String title,
+            String responsible,
+            TaskPriority priority,
+            LocalDate deadlineFrom,
+            LocalDate deadlineTo,
+            Long ownerId,
+            Boolean onlyNotConcluded,
+            String after,
+            int limit,
+            Set<TaskField> fields
+    ) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O parâmetro limit deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+
+        Specification<Task> spec = buildSpecification(
+                title, responsible, priority, deadlineFrom, deadlineTo, ownerId, onlyNotConcluded);
+
+        if (StringUtils.hasText(after)) {
+            spec = spec.and(afterCursor(TaskCursor.decode(after)));
+        }
+
+        Set<TaskField> columns = EnumSet.copyOf(fields);
+        columns.addAll(TaskField.CURSOR);
+
+        List<TaskResponse> rows = recordRows("searchPage", taskRepository.findResponses(spec, LISTING_ORDER, limit + 1, columns));
+
+        if (rows.size() <= limit) {
+            return new TaskPage(rows, null);
+        }
+
+        List<TaskResponse> items = rows.subList(0, limit);
+        TaskResponse last = items.get(limit - 1);
+        TaskCursor next = new TaskCursor(last.getDeadline(), last.getPriority().getRank(), last.getId());
+        return new TaskPage(items, next.encode());
+    }
+
+    Specification<Task> buildSpecification(
+            String title,
+            String responsible,
+            TaskPriority priority,
+            LocalDate deadlineFrom,
+            LocalDate deadlineTo,
+            Long ownerId,
+            Boolean onlyNotConcluded
     ) {
         Specification<Task> spec = Specification.where(null);
 
@@ -190,31 +438,42 @@ public class TaskService {
                     ));
         }
 
-        List<Task> tasks = taskRepository.findAll(spec);
-
-        // Ordenação: primeiro pelo prazo mais próximo (deadline asc),
-        // depois pela maior prioridade (ALTA > MEDIA > BAIXA) e,
-        // por fim, por id para ter ordenação estável.
-        tasks.sort(
-                Comparator
-                        .comparing(Task::getDeadline)
-                        .thenComparing(task -> priorityOrder(task.getPriority()))
-                        .thenComparing(Task::getId)
-        );
-
-        return tasks;
+        return spec;
     }
 
-    private int priorityOrder(TaskPriority priority) {
-        if (priority == null) {
-            return Integer.MAX_VALUE;
-        }
-        return switch (priority) {
-            case ALTA -> 1;
-            case MEDIA -> 2;
-            case BAIXA -> 3;
+    /**
+     * Restringe às tarefas posteriores ao cursor, na ordem (deadline, prioridade, id).
+     */
+    private Specification<Task> afterCursor(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDate> deadline = root.get("deadline");
+            Path<Integer> rank = root.get("priorityRank");
+            Path<Long> id = root.get("id");
+
+            return cb.or(
+                    cb.greaterThan(deadline, cursor.getDeadline()),
+                    cb.and(
+                            cb.equal(deadline, cursor.getDeadline()),
+                            cb.greaterThan(rank, cursor.getPriorityRank())
+                    ),
+                    cb.and(
+                            cb.equal(deadline, cursor.getDeadline()),
+                            cb.equal(rank, cursor.getPriorityRank()),
+                            cb.greaterThan(id, cursor.getId())
+                    )
+            );
         };
     }
-}
-
 
+    /**
+     * Registra quantas linhas a consulta retornou (métrica {@code tasks.search.rows}, por operação).
+     */
+    private <T> List<T> recordRows(String operation, List<T> rows) {
+        DistributionSummary.builder("tasks.search.rows")
+                .description("Linhas retornadas pelas consultas de listagem de tarefas")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(rows.size());
+        return rows;
+    }
+}
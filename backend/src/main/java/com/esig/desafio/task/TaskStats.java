@@ -0,0 +1,23 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Contagens de tarefas de um conjunto (geral, sem responsável ou de um responsável).
+ * {@code overdue} e {@code dueThisWeek} consideram apenas tarefas não concluídas; a semana vai
+ * de hoje até domingo.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStats {
+
+    private final Long responsibleId;
+    private final long total;
+    private final Map<TaskStatus, Long> byStatus;
+    private final Map<TaskPriority, Long> byPriority;
+    private final long overdue;
+    private final long dueThisWeek;
+}
@@ -0,0 +1,124 @@
+package com.esig.desafio.task;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Contadores de tarefas por responsável, mantidos em memória pelo {@link TaskStatsService}.
+ *
+ * Além das contagens por status e prioridade, cada grupo guarda as tarefas não concluídas
+ * agrupadas por prazo, de modo que atrasadas e da semana são obtidas somando apenas as datas
+ * do intervalo, sem depender de quando os contadores foram atualizados.
+ *
+ * Nenhum contador fica negativo: uma subtração maior que o valor atual (evento reaplicado na
+ * reconciliação sobre linhas que já o incluíam) para em zero.
+ *
+ * Não é thread-safe: o acesso é sincronizado pelo serviço.
+ */
+final class TaskStatsCounters {
+
+    private final Group global = new Group();
+    private final Group unassigned = new Group();
+    private final Map<Long, Group> byResponsible = new HashMap<>();
+
+    void add(Long responsibleId, TaskStatus status, TaskPriority priority, LocalDate deadline, long delta) {
+        global.add(status, priority, deadline, delta);
+
+        if (responsibleId == null) {
+            unassigned.add(status, priority, deadline, delta);
+            return;
+        }
+
+        Group group = byResponsible.computeIfAbsent(responsibleId, id -> new Group());
+        group.add(status, priority, deadline, delta);
+        if (group.total == 0) {
+            byResponsible.remove(responsibleId);
+        }
+    }
+
+    Group getGlobal() {
+        return global;
+    }
+
+    Group getUnassigned() {
+        return unassigned;
+    }
+
+    Group getResponsible(Long responsibleId) {
+        return byResponsible.getOrDefault(responsibleId, new Group());
+    }
+
+    Map<Long, Group> getByResponsible() {
+        return byResponsible;
+    }
+
+    static final class Group {
+
+        private final long[] byStatus = new long[TaskStatus.values().length];
+        private final long[] byPriority = new long[TaskPriority.values().length];
+        private final TreeMap<LocalDate, Long> openByDeadline = new TreeMap<>();
+        private long total;
+
+        private void add(TaskStatus status, TaskPriority priority, LocalDate deadline, long delta) {
+            total = Math.max(0, total + delta);
+            byStatus[status.ordinal()] = Math.max(0, byStatus[status.ordinal()] + delta);
+            byPriority[priority.ordinal()] = Math.max(0, byPriority[priority.ordinal()] + delta);
+
+            if (status != TaskStatus.CONCLUIDA) {
+                long open = openByDeadline.getOrDefault(deadline, 0L) + delta;
+                if (open > 0) {
+                    openByDeadline.put(deadline, open);
+                } else {
+                    openByDeadline.remove(deadline);
+                }
+            }
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        Group plus(Group other) {
+            Group sum = new Group();
+            for (Group group : new Group[] {this, other}) {
+                sum.total += group.total;
+                for (int i = 0; i < byStatus.length; i++) {
+                    sum.byStatus[i] += group.byStatus[i];
+                }
+                for (int i = 0; i < byPriority.length; i++) {
+                    sum.byPriority[i] += group.byPriority[i];
+                }
+                group.openByDeadline.forEach((deadline, count) -> sum.openByDeadline.merge(deadline, count, Long::sum));
+            }
+            return sum;
+        }
+
+        TaskStats toStats(Long responsibleId, LocalDate today, LocalDate endOfWeek) {
+            Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                statusCounts.put(status, byStatus[status.ordinal()]);
+            }
+
+            Map<TaskPriority, Long> priorityCounts = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                priorityCounts.put(priority, byPriority[priority.ordinal()]);
+            }
+
+            long overdue = sum(openByDeadline.headMap(today, false));
+            long dueThisWeek = sum(openByDeadline.subMap(today, true, endOfWeek, true));
+
+            return new TaskStats(responsibleId, total, statusCounts, priorityCounts, overdue, dueThisWeek);
+        }
+
+        private static long sum(Map<LocalDate, Long> counts) {
+            long sum = 0;
+            for (long count : counts.values()) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskStatsResponse {
+
+    private final TaskStats global;
+    private final TaskStats unassigned;
+    private final List<TaskStats> byResponsible;
+    private final LocalDateTime reconciledAt;
+}
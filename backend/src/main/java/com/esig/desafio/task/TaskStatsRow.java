@@ -0,0 +1,21 @@
+package com.esig.desafio.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Linha da consulta agregada usada na reconciliação dos contadores de {@link TaskStatsService}:
+ * quantidade de tarefas por responsável, status, prioridade e prazo.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatsRow {
+
+    private final Long responsibleId;
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final LocalDate deadline;
+    private final Long count;
+}
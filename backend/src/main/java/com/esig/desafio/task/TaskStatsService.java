@@ -0,0 +1,150 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Estatísticas de tarefas para o painel ({@code GET /tasks/stats}), lidas de contadores em memória.
+ *
+ * Os contadores são atualizados a cada alteração feita pelo {@link TaskService} (após o commit,
+ * via {@link TaskChangeEvent}) e reconstruídos periodicamente a partir de uma consulta agregada
+ * na tabela {@code tasks}. A reconciliação corrige alterações que não passam pelo serviço
+ * (outras instâncias da aplicação, scripts no banco); entre duas reconciliações os números
+ * podem ficar levemente defasados nesses casos.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskStatsService {
+
+    private final TaskRepository taskRepository;
+    private final Object rebuildLock = new Object();
+
+    private TaskStatsCounters counters = new TaskStatsCounters();
+    private LocalDateTime reconciledAt;
+    /**
+     * Alterações recebidas enquanto uma reconciliação lê o banco; são reaplicadas nos contadores
+     * novos antes da troca, para que nenhuma se perca.
+     */
+    private List<TaskChangeEvent> changesDuringRebuild;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskChange(TaskChangeEvent event) {
+        apply(counters, event);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+    }
+
+    /**
+     * Reconstrói os contadores a partir do banco. A consulta roda fora do lock dos contadores;
+     * apenas a troca bloqueia as leituras e a aplicação de eventos. Reconciliações simultâneas
+     * (agendada e primeira leitura) são executadas uma de cada vez.
+     *
+     * A gravação dos eventos começa antes de a consulta obter a conexão e ler o banco, e os eventos
+     * chegam depois do commit. Por isso também são reaplicadas alterações que a consulta já enxerga:
+     * as confirmadas entre o início da gravação e a leitura, e as confirmadas antes disso cujo evento
+     * só chegou durante a gravação. Essas ficam contadas em dobro: uma criação soma duas vezes, uma
+     * remoção subtrai duas vezes e uma atualização tira a tarefa do grupo antigo, que já não a
+     * contava. O desvio dura até a próxima reconciliação ({@code app.tasks.stats.reconcile-interval},
+     * cinco minutos por padrão), e os contadores param em zero em vez de ficarem negativos.
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+
+            TaskStatsCounters rebuilt = new TaskStatsCounters();
+            try {
+                for (TaskStatsRow row : taskRepository.countGroupedForStats()) {
+                    rebuilt.add(row.getResponsibleId(), row.getStatus(), row.getPriority(), row.getDeadline(), row.getCount());
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+                throw ex;
+            }
+
+            synchronized (this) {
+                changesDuringRebuild.forEach(event -> apply(rebuilt, event));
+                changesDuringRebuild = null;
+                counters = rebuilt;
+                reconciledAt = LocalDateTime.now();
+            }
+        }
+    }
+
+    /**
+     * Admin recebe os números gerais e por responsável. Os demais usuários recebem apenas o que
+     * enxergam na listagem: as próprias tarefas e as sem responsável.
+     */
+    public TaskStatsResponse getStats(AuthenticatedUser actor) {
+        if (getReconciledAt() == null) {
+            synchronized (rebuildLock) {
+                if (getReconciledAt() == null) {
+                    reconcile();
+                }
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+
+        synchronized (this) {
+            TaskStats unassigned = counters.getUnassigned().toStats(null, today, endOfWeek);
+
+            if (!actor.isAdmin()) {
+                TaskStatsCounters.Group own = counters.getResponsible(actor.getId());
+                TaskStats global = own.plus(counters.getUnassigned()).toStats(null, today, endOfWeek);
+                List<TaskStats> byResponsible = own.getTotal() > 0
+                        ? List.of(own.toStats(actor.getId(), today, endOfWeek))
+                        : List.of();
+                return new TaskStatsResponse(global, unassigned, byResponsible, reconciledAt);
+            }
+
+            List<TaskStats> byResponsible = new ArrayList<>();
+            counters.getByResponsible().forEach((responsibleId, group) ->
+                    byResponsible.add(group.toStats(responsibleId, today, endOfWeek)));
+            byResponsible.sort(Comparator.comparing(TaskStats::getResponsibleId));
+
+            return new TaskStatsResponse(
+                    counters.getGlobal().toStats(null, today, endOfWeek),
+                    unassigned,
+                    byResponsible,
+                    reconciledAt
+            );
+        }
+    }
+
+    private synchronized LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    private static void apply(TaskStatsCounters target, TaskChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED -> apply(target, event.getTask(), 1);
+            case UPDATED -> {
+                apply(target, event.getPrevious(), -1);
+                apply(target, event.getTask(), 1);
+            }
+            case DELETED -> apply(target, event.getTask(), -1);
+        }
+    }
+
+    private static void apply(TaskStatsCounters target, TaskResponse task, long delta) {
+        target.add(task.getResponsibleId(), task.getStatus(), task.getPriority(), task.getDeadline(), delta);
+    }
+}
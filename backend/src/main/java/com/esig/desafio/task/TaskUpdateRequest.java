@@ -1,5 +1,6 @@
 package com.esig.desafio.task;
 
+import com.esig.desafio.user.User;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -29,6 +30,18 @@ public class TaskUpdateRequest {
      * Se omitido, mantém o responsável atual.
      */
     private Long responsibleUserId;
-}
-
 
+    /**
+     * Monta os dados parciais aplicados por {@link TaskService#update}; campos nulos são ignorados.
+     */
+    public Task toEntity(User responsibleUser) {
+        return Task.builder()
+                .title(title)
+                .description(description)
+                .priority(priority)
+                .deadline(deadline)
+                .status(status)
+                .user(responsibleUser)
+                .build();
+    }
+}
@@ -2,12 +2,16 @@ package com.esig.desafio.user;
 
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,18 +19,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    /**
+     * O navegador reaproveita a lista por 1 minuto; depois revalida com o ETag (304 se ninguém se cadastrou).
+     */
+    private static final CacheControl AUTOCOMPLETE_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+
     private final UserService userService;
 
+    /**
+     * Autocomplete de responsável: até {@code limit} usuários (padrão 20, máximo
+     * {@value UserService#MAX_SEARCH_LIMIT}) cujo nome ou e-mail contém {@code q}.
+     */
     @GetMapping
     public ResponseEntity<List<UserOptionResponse>> searchOptions(
-            @RequestParam(name = "q", required = false) @Size(min = 2, message = "O termo de busca deve ter ao menos 2 caracteres.") String query
+            @RequestParam(name = "q", required = false) @Size(min = 2, message = "O termo de busca deve ter ao menos 2 caracteres.") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest
     ) {
-        List<User> users = userService.search(query);
-        List<UserOptionResponse> response = users.stream()
-                .map(UserOptionResponse::fromEntity)
-                .toList();
-        return ResponseEntity.ok(response);
+        String etag = userService.getSearchETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(AUTOCOMPLETE_CACHE)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(AUTOCOMPLETE_CACHE)
+                .body(userService.search(query, limit));
     }
 }
-
-
@@ -13,9 +13,13 @@ public class UserOptionResponse {
     private final String label;
 
     public static UserOptionResponse fromEntity(User user) {
+        return of(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public static UserOptionResponse of(Long id, String name, String email) {
         return UserOptionResponse.builder()
-                .value(user.getId())
-                .label(user.getName() + " (" + user.getEmail() + ")")
+                .value(id)
+                .label(name + " (" + email + ")")
                 .build();
     }
 }
@@ -1,17 +1,36 @@
 package com.esig.desafio.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Cacheada (região {@code users-by-email}): o cache de consultas guarda o id e a entidade vem da
+     * região {@code users}. Qualquer escrita na tabela users invalida os resultados.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-by-email")
+    })
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
 
-    List<User> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email);
+    List<User> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Todos os usuários, apenas com os campos do autocomplete; usada para (re)montar o {@link UserSearchIndex}.
+     */
+    @Query("select new com.esig.desafio.user.UserSearchRow(u.id, u.name, u.email) from User u")
+    List<UserSearchRow> findAllForSearch();
 }
 
 
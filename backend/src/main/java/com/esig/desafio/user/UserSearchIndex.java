@@ -0,0 +1,264 @@
+package com.esig.desafio.user;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória do autocomplete de responsável ({@code GET /users}), para não varrer a tabela
+ * users com {@code LIKE '%termo%'} a cada tecla digitada.
+ *
+ * Termos com 3 ou mais caracteres são buscados em qualquer posição do nome ou do e-mail, usando
+ * trigramas para chegar aos candidatos; termos menores casam com o início das palavras do nome e
+ * do e-mail, em um mapa ordenado. Acentos e maiúsculas são ignorados.
+ *
+ * Cadastros desta instância entram na hora por {@link #add(UserSearchRow)}; o índice também é
+ * remontado a partir do banco a cada {@code app.users.search.refresh-interval}, o que traz os
+ * usuários cadastrados por outras instâncias.
+ */
+@Component
+class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[\\s._@+-]+");
+
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing((Entry entry) -> entry.name)
+            .thenComparing(entry -> entry.id);
+
+    private final UserRepository userRepository;
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot;
+    /**
+     * Cadastros recebidos enquanto uma remontagem lê o banco; são reaplicados no índice novo antes da troca.
+     */
+    private List<UserSearchRow> addedDuringRebuild;
+
+    UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Remonta o índice a partir do banco. A consulta e a montagem rodam sem bloquear as buscas,
+     * que continuam no índice anterior até a troca.
+     */
+    @Scheduled(fixedDelayString = "${app.users.search.refresh-interval:PT5M}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+
+            Snapshot rebuilt = new Snapshot();
+            for (UserSearchRow row : userRepository.findAllForSearch()) {
+                rebuilt.add(row);
+            }
+
+            synchronized (this) {
+                addedDuringRebuild.forEach(rebuilt::add);
+                addedDuringRebuild = null;
+                snapshot = rebuilt;
+            }
+        }
+    }
+
+    /**
+     * Inclui um usuário recém-cadastrado.
+     */
+    synchronized void add(UserSearchRow row) {
+        if (snapshot != null) {
+            snapshot.add(row);
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(row);
+        }
+    }
+
+    /**
+     * Até {@code limit} opções, das que começam pelo termo para as que apenas o contêm, em ordem
+     * alfabética dentro de cada grupo. Sem termo, os primeiros usuários em ordem alfabética.
+     */
+    List<UserOptionResponse> search(String query, int limit) {
+        Snapshot current = getSnapshot();
+        String term = normalize(query == null ? "" : query);
+
+        if (term.isEmpty()) {
+            return current.sorted.stream()
+                    .limit(limit)
+                    .map(entry -> entry.option)
+                    .toList();
+        }
+
+        Collection<Entry> candidates = term.length() < GRAM
+                ? current.startingWith(term)
+                : current.containing(term);
+        return candidates.stream()
+                .sorted(Comparator.comparingInt((Entry entry) -> entry.rank(term)).thenComparing(BY_NAME))
+                .limit(limit)
+                .map(entry -> entry.option)
+                .toList();
+    }
+
+    /**
+     * ETag do conteúdo do índice: muda quando um usuário entra e é igual entre instâncias com os mesmos usuários.
+     */
+    String getETag() {
+        Snapshot current = getSnapshot();
+        return "\"" + Integer.toHexString(current.entries.size()) + "-" + Long.toHexString(current.fingerprint) + "\"";
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (rebuildLock) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    static String normalize(String value) {
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Estruturas de uma versão do índice. Aceitam inclusões concorrentes com as buscas; apenas
+     * {@link UserSearchIndex#add(UserSearchRow)} escreve em um índice já publicado, sob o lock do índice.
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final NavigableSet<Entry> sorted = new ConcurrentSkipListSet<>(BY_NAME);
+        private final Map<String, Set<Entry>> byTrigram = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Set<Entry>> byWord = new ConcurrentSkipListMap<>();
+        /**
+         * Soma dos hashes das entradas: independe da ordem de inclusão.
+         */
+        private volatile long fingerprint;
+
+        void add(UserSearchRow row) {
+            Entry entry = new Entry(row);
+            if (entries.putIfAbsent(entry.id, entry) != null) {
+                return;
+            }
+
+            for (String gram : trigrams(entry.text)) {
+                byTrigram.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry);
+            }
+            for (String word : entry.words) {
+                byWord.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(entry);
+            }
+            sorted.add(entry);
+            fingerprint += entry.hash;
+        }
+
+        Collection<Entry> startingWith(String prefix) {
+            Set<Entry> result = new HashSet<>();
+            for (Set<Entry> entriesForWord : byWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                result.addAll(entriesForWord);
+            }
+            return result;
+        }
+
+        /**
+         * Candidatos da lista de trigrama mais curta, confirmados pelo texto completo.
+         */
+        Collection<Entry> containing(String term) {
+            Set<Entry> smallest = null;
+            for (String gram : trigrams(term)) {
+                Set<Entry> posting = byTrigram.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                if (smallest == null || posting.size() < smallest.size()) {
+                    smallest = posting;
+                }
+            }
+            return smallest.stream()
+                    .filter(entry -> entry.text.contains(term))
+                    .toList();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final String name;
+        private final String email;
+        /**
+         * Nome e e-mail normalizados, separados por espaço: texto dos trigramas.
+         */
+        private final String text;
+        private final Set<String> words;
+        private final UserOptionResponse option;
+        private final long hash;
+
+        Entry(UserSearchRow row) {
+            this.id = row.getId();
+            this.name = normalize(row.getName());
+            this.email = normalize(row.getEmail());
+            this.text = name + " " + email;
+
+            this.words = new LinkedHashSet<>();
+            words.add(email);
+            for (String word : WORD_SEPARATORS.split(text)) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+
+            this.option = UserOptionResponse.of(row.getId(), row.getName(), row.getEmail());
+
+            long h = id * 0x9E3779B97F4A7C15L + option.getLabel().hashCode();
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            this.hash = h ^ (h >>> 33);
+        }
+
+        /**
+         * 0: nome ou e-mail começam pelo termo; 1: alguma palavra começa pelo termo; 2: contém o termo.
+         */
+        int rank(String term) {
+            if (name.startsWith(term) || email.startsWith(term)) {
+                return 0;
+            }
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    return 1;
+                }
+            }
+            return 2;
+        }
+    }
+}
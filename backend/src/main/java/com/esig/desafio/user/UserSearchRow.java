@@ -0,0 +1,16 @@
+package com.esig.desafio.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Linha usada para montar o {@link UserSearchIndex}: apenas id, nome e e-mail (sem hash de senha).
+ */
+@Getter
+@AllArgsConstructor
+public class UserSearchRow {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+}
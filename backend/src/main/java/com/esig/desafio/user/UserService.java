@@ -1,20 +1,65 @@
 package com.esig.desafio.user;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
-public class UserService {
+@Timed("users.service")
+public class UserService implements MeterBinder {
+
+    /**
+     * Quantidade máxima de opções retornadas pelo autocomplete de usuários.
+     */
+    public static final int MAX_SEARCH_LIMIT = 50;
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSearchIndex searchIndex;
+
+    /**
+     * Cache de leitura (read-through) das buscas por id e por e-mail.
+     * Usuários mudam pouco em relação à frequência de leitura; qualquer escrita
+     * em usuários deve chamar {@link #evictFromCache(User)}.
+     */
+    private final Cache<Long, User> usersById;
+    private final Cache<String, User> usersByEmail;
+
+    public UserService(
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            UserSearchIndex searchIndex,
+            @Value("${app.users.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${app.users.cache.ttl:10m}") Duration cacheTtl
+    ) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.searchIndex = searchIndex;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+    }
 
     /**
      * Cria um novo usuário com senha criptografada.
@@ -31,32 +76,112 @@ public class UserService {
              user.setRoles("ROLE_USER");
          }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evictFromCache(saved);
+        searchIndex.add(new UserSearchRow(saved.getId(), saved.getName(), saved.getEmail()));
+        return saved;
+    }
+
+    /**
+     * Substitui o hash de senha por um já calculado (rehash no login quando o custo do BCrypt mudou).
+     */
+    public void updatePasswordHash(String email, String encodedPassword) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com e-mail: " + email));
+        user.setPassword(encodedPassword);
+        userRepository.save(user);
+        evictFromCache(user);
     }
 
     public User getByIdOrThrow(Long id) {
-        return userRepository
-                .findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com id: " + id));
+        User user = usersById.get(id, key -> userRepository.findById(key)
+                .map(this::cacheByEmail)
+                .orElse(null));
+        if (user == null) {
+            throw new EntityNotFoundException("Usuário não encontrado com id: " + id);
+        }
+        return user;
+    }
+
+    /**
+     * Referência (proxy) ao usuário, sem consulta ao banco.
+     * Útil para associar o usuário a outra entidade quando apenas o id é conhecido.
+     */
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return Optional.ofNullable(usersByEmail.get(email, key -> userRepository.findByEmail(key)
+                .map(this::cacheById)
+                .orElse(null)));
     }
 
     public User getByEmailOrThrow(String email) {
-        return userRepository
-                .findByEmail(email)
+        return findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com e-mail: " + email));
     }
 
-    public List<User> search(String query) {
-        if (query == null || query.isBlank()) {
-            return userRepository.findAll();
+    /**
+     * Busca em uma única consulta os usuários dos e-mails informados (e-mails inexistentes são ignorados).
+     */
+    public List<User> findByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
         }
-        String term = query.trim();
-        return userRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(term, term);
+        return userRepository.findByEmailIn(emails);
     }
-}
 
+    /**
+     * Estatísticas combinadas (acertos/erros) dos caches de usuários por id e por e-mail.
+     */
+    public CacheStats getCacheStats() {
+        return usersById.stats().plus(usersByEmail.stats());
+    }
+
+    /**
+     * Publica acertos, erros e tamanho de cada cache ({@code cache="users-by-id"} e {@code cache="users-by-email"}).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usersById, "users-by-id");
+        CaffeineCacheMetrics.monitor(registry, usersByEmail, "users-by-email");
+    }
+
+    /**
+     * Opções do autocomplete de responsável, servidas pelo {@link UserSearchIndex} sem consultar o banco.
+     * Sem termo, retorna os primeiros usuários em ordem alfabética.
+     */
+    public List<UserOptionResponse> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("O parâmetro limit deve estar entre 1 e " + MAX_SEARCH_LIMIT + ".");
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * ETag das respostas do autocomplete; muda a cada novo usuário.
+     */
+    public String getSearchETag() {
+        return searchIndex.getETag();
+    }
 
+    private void evictFromCache(User user) {
+        if (user.getId() != null) {
+            usersById.invalidate(user.getId());
+        }
+        if (user.getEmail() != null) {
+            usersByEmail.invalidate(user.getEmail());
+        }
+    }
+
+    private User cacheById(User user) {
+        usersById.put(user.getId(), user);
+        return user;
+    }
+
+    private User cacheByEmail(User user) {
+        usersByEmail.put(user.getEmail(), user);
+        return user;
+    }
+}
@@ -0,0 +1,18 @@
+-- Ranking numérico da prioridade (ALTA = 1, MEDIA = 2, BAIXA = 3), usado para ordenar
+-- a listagem no banco, já que a coluna priority (VARCHAR) ordena alfabeticamente.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS priority_rank SMALLINT;
+
+UPDATE tasks
+SET priority_rank = CASE priority
+                        WHEN 'ALTA' THEN 1
+                        WHEN 'MEDIA' THEN 2
+                        ELSE 3
+                    END
+WHERE priority_rank IS NULL;
+
+ALTER TABLE tasks ALTER COLUMN priority_rank SET NOT NULL;
+
+-- Índice na mesma ordem da listagem (deadline, prioridade, id), permitindo ao PostgreSQL
+-- percorrer as linhas já ordenadas e parar ao atingir o limite da página.
+CREATE INDEX IF NOT EXISTS idx_tasks_status_deadline_rank_id
+    ON tasks (status, deadline, priority_rank, id);
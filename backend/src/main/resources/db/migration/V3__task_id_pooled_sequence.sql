@@ -0,0 +1,4 @@
+-- Geração de ids de tarefas em blocos (pooled optimizer do Hibernate, allocationSize = 50).
+-- Com IDENTITY o Hibernate precisa executar cada INSERT individualmente para obter o id;
+-- com a sequência reservando 50 ids por chamada, os INSERTs podem ser enviados em batch JDBC.
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Versão da tarefa para controle de concorrência otimista (@Version / If-Match).
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,40 @@
+-- Índices para os filtros reais da listagem (TaskService.buildSpecification), verificados por TaskQueryPlanTest.
+
+-- Busca por trecho em título e responsável: lower(coluna) LIKE '%termo%' só usa índice com trigramas.
+-- pg_trgm é uma extensão "trusted": o dono do banco pode instalá-la sem superusuário.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_title_trgm
+    ON tasks USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_responsible_trgm
+    ON tasks USING gin (lower(responsible) gin_trgm_ops);
+
+-- Listagem padrão (onlyNotConcluded = true, ou seja, status <> 'CONCLUIDA'): índices parciais apenas com
+-- as tarefas abertas, que tendem a ser uma fração pequena da tabela, na ordem da listagem
+-- (deadline, priority_rank, id). O PostgreSQL percorre as linhas já ordenadas e para no limit da página.
+CREATE INDEX IF NOT EXISTS idx_tasks_open_listing
+    ON tasks (deadline, priority_rank, id)
+    WHERE status <> 'CONCLUIDA';
+
+-- Visibilidade do ROLE_USER (user_id = ? OR user_id IS NULL) nas tarefas abertas: cada lado do OR
+-- é uma faixa deste índice.
+CREATE INDEX IF NOT EXISTS idx_tasks_open_user
+    ON tasks (user_id, deadline, priority_rank, id)
+    WHERE status <> 'CONCLUIDA';
+
+-- user_id em todas as tarefas: visibilidade com onlyNotConcluded = false e a FK para users.
+-- As colunas incluídas cobrem a reconciliação de /tasks/stats (agrupamento por user_id, status,
+-- priority e deadline) com index-only scan.
+CREATE INDEX IF NOT EXISTS idx_tasks_user_id
+    ON tasks (user_id) INCLUDE (status, priority, deadline);
+
+-- Listagem incluindo concluídas: mesma ordem, tabela inteira; também atende às faixas de prazo.
+CREATE INDEX IF NOT EXISTS idx_tasks_listing
+    ON tasks (deadline, priority_rank, id);
+
+-- Substituídos pelos índices acima: o status só é filtrado como status <> 'CONCLUIDA', que um B-tree
+-- não usa como faixa, e o prazo passa a ser a primeira coluna de idx_tasks_listing.
+DROP INDEX IF EXISTS idx_tasks_status;
+DROP INDEX IF EXISTS idx_tasks_status_deadline_rank_id;
+DROP INDEX IF EXISTS idx_tasks_deadline;
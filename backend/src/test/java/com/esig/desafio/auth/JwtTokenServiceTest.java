@@ -0,0 +1,68 @@
+package com.esig.desafio.auth;
+
+import com.esig.desafio.user.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenServiceTest {
+
+    private final JwtTokenService jwtTokenService = new JwtTokenService("segredo-de-teste", 60_000, 100);
+
+    private User user() {
+        return User.builder()
+                .id(1L)
+                .name("Usuário Teste")
+                .email("teste@exemplo.com")
+                .roles("ROLE_USER")
+                .build();
+    }
+
+    @Test
+    @DisplayName("parseClaims deve retornar claims do token e servir chamadas seguintes do cache")
+    void parseClaims_ShouldReturnClaimsAndHitCacheOnRepeat() {
+        String token = jwtTokenService.generateToken(user());
+
+        Optional<Claims> first = jwtTokenService.parseClaims(token);
+        Optional<Claims> second = jwtTokenService.parseClaims(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("teste@exemplo.com", first.get().getSubject());
+        assertEquals("ROLE_USER", first.get().get("roles", String.class));
+        assertSame(first.get(), second.get());
+        assertEquals(1, jwtTokenService.getVerifiedTokenCacheStats().missCount());
+        assertEquals(1, jwtTokenService.getVerifiedTokenCacheStats().hitCount());
+    }
+
+    @Test
+    @DisplayName("claims do token devem bastar para montar o principal autenticado")
+    void fromClaims_ShouldBuildPrincipalWithoutDatabase() {
+        Claims claims = jwtTokenService.parseClaims(jwtTokenService.generateToken(user())).orElseThrow();
+
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims).orElseThrow();
+
+        assertEquals(1L, principal.getId());
+        assertEquals("Usuário Teste", principal.getDisplayName());
+        assertEquals("teste@exemplo.com", principal.getName());
+        assertFalse(principal.isAdmin());
+        assertEquals("ROLE_USER", principal.getAuthorities().get(0).getAuthority());
+    }
+
+    @Test
+    @DisplayName("parseClaims deve rejeitar token adulterado ou expirado")
+    void parseClaims_ShouldRejectTamperedOrExpiredToken() {
+        String token = jwtTokenService.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        JwtTokenService expiredIssuer = new JwtTokenService("segredo-de-teste", -1_000, 100);
+        String expired = expiredIssuer.generateToken(user());
+
+        assertFalse(jwtTokenService.parseClaims(tampered).isPresent());
+        assertFalse(jwtTokenService.parseClaims(expired).isPresent());
+        assertTrue(jwtTokenService.parseClaims("nao-e-um-jwt").isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.esig.desafio.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("matches deve delegar ao encoder original no pool dedicado")
+    void matches_ShouldDelegate() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5), registry);
+
+        String hash = encoder.encode("senha123");
+
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+    }
+
+    @Test
+    @DisplayName("deve recusar com RejectedExecutionException quando o pool e a fila estiverem cheios")
+    void matches_ShouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(10), registry);
+
+        CompletableFuture.runAsync(() -> encoder.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> encoder.matches("b", "hash"));
+        waitForQueued(1);
+
+        assertThrows(RejectedExecutionException.class, () -> encoder.matches("c", "hash"));
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("deve recusar com RejectedExecutionException quando a espera passar do timeout")
+    void matches_ShouldRejectOnTimeout() {
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), anyString())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofMillis(50), registry);
+
+        assertThrows(RejectedExecutionException.class, () -> encoder.matches("a", "hash"));
+    }
+
+    @Test
+    @DisplayName("bcryptCost deve extrair o custo do hash e retornar -1 para valores que não são BCrypt")
+    void bcryptCost_ShouldParseCost() {
+        assertEquals(4, SecurityConfig.bcryptCost(new BCryptPasswordEncoder(4).encode("senha123")));
+        assertEquals(12, SecurityConfig.bcryptCost("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, SecurityConfig.bcryptCost("texto-puro"));
+        assertEquals(-1, SecurityConfig.bcryptCost(null));
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.queued").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.esig.desafio.config;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dois bancos H2 em memória fazem o papel do principal e da réplica; cada um responde com o próprio nome.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVICE_READ = "com.esig.desafio.task.TaskService.search";
+    private static final String REPOSITORY_READ = "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), database("replica"), Duration.ofMinutes(1)));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("transação somente leitura da aplicação deve ir para a réplica; escrita e sem transação, para o principal")
+    void shouldRouteApplicationReadOnlyTransactionsToReplica() {
+        assertEquals("replica", nodeIn(SERVICE_READ, true));
+        assertEquals("primary", nodeIn(SERVICE_READ, false));
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    @DisplayName("leituras padrão dos repositórios do Spring Data devem ficar no principal")
+    void shouldKeepRepositoryReadsOnPrimary() {
+        assertEquals("primary", nodeIn(REPOSITORY_READ, true));
+    }
+
+    @Test
+    @DisplayName("após uma escrita, as leituras do mesmo usuário devem ficar no principal")
+    void shouldReadOwnWritesFromPrimary() {
+        authenticate(1L);
+        assertEquals("replica", nodeIn(SERVICE_READ, true));
+
+        nodeIn("com.esig.desafio.task.TaskService.update", false);
+        assertEquals("primary", nodeIn(SERVICE_READ, true));
+
+        authenticate(2L);
+        assertEquals("replica", nodeIn(SERVICE_READ, true));
+    }
+
+    private String nodeIn(String transactionName, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(transactionName);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists node (name varchar(20))");
+        template.execute("delete from node");
+        template.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private void authenticate(Long id) {
+        AuthenticatedUser user = new AuthenticatedUser(id, "Usuário " + id, "u" + id + "@exemplo.com", "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
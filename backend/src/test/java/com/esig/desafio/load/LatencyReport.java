@@ -0,0 +1,161 @@
+package com.esig.desafio.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por endpoint em histogramas HDR (microssegundos, 3 dígitos significativos).
+ *
+ * A latência é medida a partir do instante em que a requisição deveria ter sido iniciada pela
+ * taxa de chegada, e não de quando foi de fato enviada: se o servidor atrasa, o atraso entra na
+ * medição (correção de coordinated omission).
+ */
+class LatencyReport {
+
+    static final double[] GATED_PERCENTILES = {50.0, 99.0};
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new TreeMap<>();
+
+    LatencyReport(List<String> endpointNames) {
+        for (String name : endpointNames) {
+            endpoints.put(name, new Endpoint());
+        }
+    }
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.get(endpoint);
+        stats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        stats.requests.increment();
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    double percentileMillis(String endpoint, double percentile) {
+        return endpoints.get(endpoint).histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    long requests(String endpoint) {
+        return endpoints.get(endpoint).requests.sum();
+    }
+
+    long errors(String endpoint) {
+        return endpoints.get(endpoint).errors.sum();
+    }
+
+    long totalRequests() {
+        return endpoints.values().stream().mapToLong(stats -> stats.requests.sum()).sum();
+    }
+
+    long totalErrors() {
+        return endpoints.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    /**
+     * Grava a distribuição completa de cada endpoint ({@code <endpoint>.hgrm}, em ms, no formato
+     * aceito pelo HdrHistogram plotter) e um resumo ({@code summary.txt}), também impresso no console.
+     */
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%-14s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey() + ".hgrm")), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            summary.append(String.format(Locale.ROOT, "%-14s %9d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    entry.getValue().requests.sum(),
+                    entry.getValue().errors.sum(),
+                    histogram.getValueAtPercentile(50.0) / 1000.0,
+                    histogram.getValueAtPercentile(90.0) / 1000.0,
+                    histogram.getValueAtPercentile(99.0) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        }
+
+        Files.writeString(dir.resolve("summary.txt"), summary);
+        System.out.print(summary);
+    }
+
+    static Properties readBaseline(Path baselineFile) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    /**
+     * Compara os percentis medidos com a linha de base ({@code <endpoint>.p50} e {@code <endpoint>.p99}, em ms).
+     * Retorna uma descrição de cada percentil acima de {@code baseline * (1 + tolerance)}.
+     */
+    List<String> regressionsAgainst(Properties baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (String endpoint : endpoints.keySet()) {
+            for (double percentile : GATED_PERCENTILES) {
+                String key = key(endpoint, percentile);
+                String stored = baseline.getProperty(key);
+                if (stored == null) {
+                    continue;
+                }
+                double limit = Double.parseDouble(stored) * (1 + tolerance);
+                double measured = percentileMillis(endpoint, percentile);
+                if (measured > limit) {
+                    regressions.add(String.format(Locale.ROOT, "%s = %.2f ms (linha de base %s ms, limite %.2f ms)",
+                            key, measured, stored, limit));
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Grava os percentis medidos junto com os parâmetros da carga ({@code workload}).
+     */
+    void writeBaseline(Path baselineFile, Map<String, String> workload) throws IOException {
+        Properties baseline = new Properties();
+        baseline.putAll(workload);
+        for (String endpoint : endpoints.keySet()) {
+            for (double percentile : GATED_PERCENTILES) {
+                baseline.setProperty(key(endpoint, percentile),
+                        String.format(Locale.ROOT, "%.2f", percentileMillis(endpoint, percentile)));
+            }
+        }
+
+        Files.createDirectories(baselineFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.store(writer, "Latencias de referencia (ms) do teste de carga. Regravar com -Dload.update-baseline=true");
+        }
+    }
+
+    private static String key(String endpoint, double percentile) {
+        return endpoint + ".p" + (int) percentile;
+    }
+
+    private static class Endpoint {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
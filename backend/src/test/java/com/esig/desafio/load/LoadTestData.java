@@ -0,0 +1,76 @@
+package com.esig.desafio.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banco e massa de dados compartilhados pelos testes de carga.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "Senha123";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] PRIORITIES = {"ALTA", "MEDIA", "BAIXA"};
+
+    private LoadTestData() {
+    }
+
+    static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Não foi possível iniciar o PostgreSQL embutido.", ex);
+        }
+    }
+
+    static String email(int user) {
+        return "carga-" + user + "@exemplo.com";
+    }
+
+    /**
+     * Cria usuários e tarefas direto no banco, em batches JDBC. Todos os usuários têm a senha
+     * {@link #PASSWORD} (hash calculado uma única vez). Metade das tarefas fica sem responsável;
+     * a outra metade é distribuída entre os usuários. Os prazos cobrem os próximos 365 dias.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, String passwordHash, int users, int tasks) {
+        List<Object[]> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{"Usuário de carga " + i, email(i), passwordHash});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (name, email, password, roles) VALUES (?, ?, ?, 'ROLE_USER')", userRows);
+
+        List<Object[]> owners = jdbcTemplate.query(
+                "SELECT id, name FROM users WHERE email LIKE 'carga-%' ORDER BY id",
+                (row, index) -> new Object[]{row.getLong("id"), row.getString("name")});
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> taskRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < tasks; i++) {
+            Object[] owner = i % 2 == 0 ? owners.get((i / 2) % owners.size()) : null;
+            taskRows.add(new Object[]{
+                    "Tarefa " + i,
+                    "Descrição da tarefa " + i,
+                    owner != null ? owner[1] : "",
+                    PRIORITIES[i % 3],
+                    i % 3 + 1,
+                    Date.valueOf(today.plusDays(1 + i % 365)),
+                    owner != null ? owner[0] : null
+            });
+            if (taskRows.size() == BATCH_SIZE || i == tasks - 1) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO tasks (title, description, responsible, priority, priority_rank, deadline, status, user_id)
+                        VALUES (?, ?, ?, ?, ?, ?, 'EM_ANDAMENTO', ?)
+                        """, taskRows);
+                taskRows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.esig.desafio.load;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de propriedades de sistema ({@code -Dload.users=100} etc.).
+ */
+@Getter
+class LoadTestSettings {
+
+    /** Usuários ROLE_USER criados antes do teste. */
+    private final int users = Integer.getInteger("load.users", 50);
+
+    /** Tarefas criadas antes do teste; metade com responsável (distribuídas entre os usuários), metade sem. */
+    private final int tasks = Integer.getInteger("load.tasks", 20_000);
+
+    /** Requisições iniciadas por segundo, independentemente do tempo de resposta (taxa de chegada fixa). */
+    private final int rate = Integer.getInteger("load.rate", 20);
+
+    /** Período inicial descartado do relatório (aquecimento da JVM, caches e pool de conexões). */
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT15S"));
+
+    /** Período medido, após o aquecimento. */
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+
+    /** Folga aceita sobre a linha de base antes de considerar regressão (0.25 = até 25% mais lento). */
+    private final double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+
+    /** Fração máxima de requisições com erro (status inesperado ou falha de conexão). */
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+    /** Quando true, grava os percentis medidos como nova linha de base em vez de compará-los. */
+    private final boolean updateBaseline = Boolean.getBoolean("load.update-baseline");
+
+    private final Path reportDir = Path.of(System.getProperty("load.report-dir", "target/load-test"));
+
+    private final Path baselineFile = Path.of(System.getProperty("load.baseline", "src/test/resources/load/latency-baseline.properties"));
+
+    /**
+     * Parâmetros que definem a carga. Ficam gravados na linha de base, que só é comparável com
+     * execuções feitas com os mesmos valores.
+     */
+    Map<String, String> workload() {
+        return Map.of(
+                "load.users", String.valueOf(users),
+                "load.tasks", String.valueOf(tasks),
+                "load.rate", String.valueOf(rate),
+                "load.duration", duration.toString());
+    }
+}
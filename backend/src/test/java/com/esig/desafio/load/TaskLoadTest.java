@@ -0,0 +1,368 @@
+package com.esig.desafio.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Teste de carga HTTP da API de tarefas, executado sob demanda:
+ * {@code mvn test -Dgroups=load -DexcludedGroups=} (parâmetros em {@link LoadTestSettings}).
+ *
+ * Sobe a aplicação com o perfil {@code prod} sobre um PostgreSQL embutido (migrações Flyway),
+ * cria usuários e tarefas e dispara tráfego misto a uma taxa de chegada fixa: cada requisição
+ * começa no seu horário previsto, mesmo que as anteriores ainda não tenham respondido.
+ * Grava um histograma HDR por endpoint em {@code target/load-test} e falha se o p50 ou o p99 de
+ * algum endpoint passar da linha de base ({@code src/test/resources/load/latency-baseline.properties})
+ * acrescida da tolerância. A linha de base depende da máquina: regrave-a na máquina de referência
+ * com {@code -Dload.update-baseline=true}.
+ */
+@Tag("load")
+@ActiveProfiles("prod")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.server.port=-1",
+                "logging.level.root=WARN",
+                // Todos os usuários virtuais vêm do mesmo IP; o limite por usuário continua ativo.
+                "app.rate-limit.auth.capacity=1000"
+        }
+)
+class TaskLoadTest {
+
+    private static final String LOGIN = "login";
+    private static final String LIST = "list";
+    private static final String LIST_PAGE = "listPage";
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String COMPLETE = "complete";
+    private static final String LINK_TO_SELF = "linkToSelf";
+
+    /**
+     * Peso de cada operação no tráfego (soma 100).
+     */
+    private static final Map<String, Integer> TRAFFIC_MIX = Map.of(
+            LIST, 40,
+            LIST_PAGE, 15,
+            UPDATE, 15,
+            CREATE, 10,
+            COMPLETE, 8,
+            LINK_TO_SELF, 7,
+            LOGIN, 5
+    );
+
+    private static final EmbeddedPostgres POSTGRES = LoadTestData.startPostgres();
+
+    private final LoadTestSettings settings = new LoadTestSettings();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final Queue<Long> unassignedTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    @DisplayName("latências p50/p99 por endpoint não devem regredir além da linha de base")
+    void mixedTraffic_ShouldStayWithinLatencyBaseline() throws Exception {
+        seed();
+        for (VirtualUser user : users) {
+            login(user);
+        }
+
+        LatencyReport report = new LatencyReport(List.copyOf(TRAFFIC_MIX.keySet()));
+        drive(report);
+        report.write(settings.getReportDir());
+
+        long requests = report.totalRequests();
+        long errors = report.totalErrors();
+        assertTrue(requests > 0, "Nenhuma requisição medida.");
+        assertTrue(errors <= requests * settings.getMaxErrorRate(),
+                errors + " de " + requests + " requisições falharam (limite: " + settings.getMaxErrorRate() * 100 + "%).");
+
+        if (settings.isUpdateBaseline()) {
+            report.writeBaseline(settings.getBaselineFile(), settings.workload());
+            System.out.println("Linha de base gravada em " + settings.getBaselineFile().toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(settings.getBaselineFile())) {
+            fail("Linha de base não encontrada em " + settings.getBaselineFile() + ". Grave-a com -Dload.update-baseline=true.");
+        }
+
+        Properties baseline = LatencyReport.readBaseline(settings.getBaselineFile());
+        settings.workload().forEach((parameter, value) -> assertEquals(baseline.getProperty(parameter), value,
+                "A linha de base foi gravada com " + parameter + "=" + baseline.getProperty(parameter)
+                        + ". Use o mesmo valor ou regrave a linha de base com -Dload.update-baseline=true."));
+
+        List<String> regressions = report.regressionsAgainst(baseline, settings.getTolerance());
+        assertTrue(regressions.isEmpty(), "Latência acima da linha de base:\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Dispara uma requisição a cada {@code 1/rate} segundos durante aquecimento + medição. As
+     * requisições rodam em virtual threads, para que respostas lentas não atrasem as seguintes.
+     */
+    private void drive(LatencyReport report) throws InterruptedException {
+        List<String> weighted = new ArrayList<>();
+        TRAFFIC_MIX.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += intervalNanos) {
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                long scheduledAt = intended;
+                String operation = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+                executor.submit(() -> {
+                    Boolean success = execute(operation);
+                    if (success != null && scheduledAt >= measureFrom) {
+                        report.record(operation, System.nanoTime() - scheduledAt, success);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Executa a operação para um usuário sorteado. Retorna null quando não há tarefa disponível
+     * para a operação (nada é medido), e se a resposta teve o status esperado nos demais casos.
+     */
+    private Boolean execute(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+
+        try {
+            return switch (operation) {
+                case LOGIN -> login(user);
+                case LIST -> succeeded(send(user, get("/tasks?" + randomFilter(random))), 200);
+                case LIST_PAGE -> succeeded(send(user, get("/tasks?limit=20&" + randomFilter(random))), 200);
+                case CREATE -> create(user);
+                case UPDATE -> update(user);
+                case COMPLETE -> complete(user);
+                case LINK_TO_SELF -> linkToSelf(user);
+                default -> throw new IllegalStateException("Operação desconhecida: " + operation);
+            };
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Boolean login(VirtualUser user) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", user.email, "password", LoadTestData.PASSWORD));
+        HttpResponse<String> response = send(null, post("/auth/login", body));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        user.token = objectMapper.readTree(response.body()).get("token").asText();
+        return true;
+    }
+
+    private Boolean create(VirtualUser user) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "title", "Carga " + sequence.incrementAndGet(),
+                "priority", "MEDIA",
+                "deadline", LocalDate.now().plusDays(30).toString()));
+        HttpResponse<String> response = send(user, post("/tasks", body));
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        unassignedTasks.add(objectMapper.readTree(response.body()).get("id").asLong());
+        return true;
+    }
+
+    /**
+     * Cada tarefa é retirada da fila do usuário enquanto está em uso, para que duas requisições
+     * simultâneas não alterem a mesma tarefa (o que resultaria em 403 por conclusão concorrente).
+     */
+    private Boolean update(VirtualUser user) throws IOException, InterruptedException {
+        Long taskId = user.openTasks.pollFirst();
+        if (taskId == null) {
+            return null;
+        }
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("title", "Atualizada " + sequence.incrementAndGet()));
+            return succeeded(send(user, put("/tasks/" + taskId, body)), 200);
+        } finally {
+            user.openTasks.addLast(taskId);
+        }
+    }
+
+    private Boolean complete(VirtualUser user) throws IOException, InterruptedException {
+        Long taskId = user.openTasks.pollFirst();
+        if (taskId == null) {
+            return null;
+        }
+        return succeeded(send(user, patch("/tasks/" + taskId + "/concluir")), 200);
+    }
+
+    private Boolean linkToSelf(VirtualUser user) throws IOException, InterruptedException {
+        Long taskId = unassignedTasks.poll();
+        if (taskId == null) {
+            return null;
+        }
+        HttpResponse<String> response = send(user, patch("/tasks/" + taskId + "/responsavel"));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        user.openTasks.addLast(taskId);
+        return true;
+    }
+
+    private static Boolean succeeded(HttpResponse<String> response, int expectedStatus) {
+        return response.statusCode() == expectedStatus;
+    }
+
+    private String randomFilter(ThreadLocalRandom random) {
+        LocalDate from = LocalDate.now().plusDays(1 + random.nextInt(330));
+        StringBuilder filter = new StringBuilder("deadlineFrom=" + from + "&deadlineTo=" + from.plusDays(30));
+        if (random.nextBoolean()) {
+            filter.append("&priority=").append(random.nextBoolean() ? "ALTA" : "BAIXA");
+        }
+        if (random.nextInt(4) == 0) {
+            filter.append("&title=").append(random.nextInt(10));
+        }
+        return filter.toString();
+    }
+
+    private HttpResponse<String> send(VirtualUser user, HttpRequest.Builder request) throws IOException, InterruptedException {
+        request.timeout(Duration.ofSeconds(30));
+        if (user != null) {
+            request.header("Authorization", "Bearer " + user.token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder put(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder patch(String path) {
+        return HttpRequest.newBuilder(uri(path)).method("PATCH", HttpRequest.BodyPublishers.noBody());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/v1" + path);
+    }
+
+    /**
+     * Cria a massa de dados e distribui as tarefas abertas entre as filas dos usuários virtuais.
+     */
+    private void seed() {
+        LoadTestData.seed(jdbcTemplate, passwordEncoder.encode(LoadTestData.PASSWORD), settings.getUsers(), settings.getTasks());
+
+        Map<Long, VirtualUser> byId = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email LIKE 'carga-%' ORDER BY id", row -> {
+            VirtualUser user = new VirtualUser(row.getLong("id"), row.getString("email"));
+            users.add(user);
+            byId.put(user.id, user);
+        });
+
+        jdbcTemplate.query("SELECT id, user_id FROM tasks WHERE status = 'EM_ANDAMENTO'", row -> {
+            long userId = row.getLong("user_id");
+            if (row.wasNull()) {
+                unassignedTasks.add(row.getLong("id"));
+            } else {
+                byId.get(userId).openTasks.addLast(row.getLong("id"));
+            }
+        });
+    }
+
+    private static class VirtualUser {
+
+        private final long id;
+        private final String email;
+        private final Deque<Long> openTasks = new ConcurrentLinkedDeque<>();
+        private volatile String token;
+
+        private VirtualUser(long id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.esig.desafio.load;
+
+import com.esig.desafio.DesafioEsigApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara o modo padrão (pool de threads do Tomcat) com o perfil {@code virtual-threads} sob alta
+ * concorrência: {@code load.concurrency} clientes em laço fechado sobre a listagem paginada, que
+ * passa a maior parte do tempo esperando o PostgreSQL. Imprime vazão, latências e o pico de
+ * threads de plataforma de cada modo; os histogramas ficam em {@code target/load-test/threading}.
+ *
+ * Executar com: {@code mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ThreadingModeBenchmarkTest}
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTest {
+
+    private static final String PLATFORM = "platform";
+    private static final String VIRTUAL = "virtual";
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final int TASKS = Integer.getInteger("load.tasks", 20_000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+    private static final EmbeddedPostgres POSTGRES = LoadTestData.startPostgres();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    @DisplayName("perfil virtual-threads deve atender alta concorrência sem erros, comparado ao pool do Tomcat")
+    void compareThreadingModes() throws Exception {
+        LatencyReport report = new LatencyReport(List.of(PLATFORM, VIRTUAL));
+
+        long platformPeakThreads = run(PLATFORM, report, true);
+        long virtualPeakThreads = run(VIRTUAL, report, false);
+
+        report.write(Path.of("target/load-test/threading"));
+        double seconds = DURATION.toMillis() / 1000.0;
+        System.out.printf(Locale.ROOT, "%d clientes: platform = %.0f req/s (pico de %d threads), virtual = %.0f req/s (pico de %d threads)%n",
+                CONCURRENCY,
+                report.requests(PLATFORM) / seconds, platformPeakThreads,
+                report.requests(VIRTUAL) / seconds, virtualPeakThreads);
+
+        assertTrue(report.requests(VIRTUAL) > 0, "Nenhuma requisição medida no modo virtual.");
+        assertTrue(report.errors(VIRTUAL) <= report.requests(VIRTUAL) / 100,
+                report.errors(VIRTUAL) + " requisições falharam no modo virtual.");
+    }
+
+    /**
+     * Sobe a aplicação no modo informado, mede durante {@link #DURATION} após o aquecimento e
+     * retorna o pico de threads de plataforma da JVM no período.
+     */
+    private long run(String mode, LatencyReport report, boolean seed) throws Exception {
+        List<String> profiles = new ArrayList<>(List.of("prod"));
+        if (VIRTUAL.equals(mode)) {
+            profiles.add("virtual-threads");
+        }
+
+        // Argumentos de linha de comando, para prevalecer sobre o application-prod.yml.
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DesafioEsigApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--logging.level.root=WARN",
+                        // Um único usuário gera toda a carga.
+                        "--app.rate-limit.enabled=false",
+                        "--spring.datasource.url=" + POSTGRES.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres")) {
+
+            if (seed) {
+                String passwordHash = context.getBean(PasswordEncoder.class).encode(LoadTestData.PASSWORD);
+                LoadTestData.seed(context.getBean(JdbcTemplate.class), passwordHash, 1, TASKS);
+            }
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+            String token = login(baseUrl);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long start = System.nanoTime();
+            long measureFrom = start + WARMUP.toNanos();
+            long end = measureFrom + DURATION.toNanos();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    clients.submit(() -> {
+                        boolean measuring = false;
+                        long now;
+                        while ((now = System.nanoTime()) < end) {
+                            if (!measuring && now >= measureFrom) {
+                                measuring = true;
+                            }
+                            boolean success = listPage(baseUrl, token);
+                            if (measuring) {
+                                report.record(mode, System.nanoTime() - now, success);
+                            }
+                        }
+                    });
+                }
+                Thread.sleep(WARMUP.toMillis());
+                threads.resetPeakThreadCount();
+            }
+            return threads.getPeakThreadCount();
+        }
+    }
+
+    private boolean listPage(String baseUrl, String token) {
+        LocalDate from = LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(330));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                        baseUrl + "/tasks?limit=20&deadlineFrom=" + from + "&deadlineTo=" + from.plusDays(30)))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String login(String baseUrl) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", LoadTestData.email(0), "password", LoadTestData.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+}
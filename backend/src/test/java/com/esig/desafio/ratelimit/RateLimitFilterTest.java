@@ -0,0 +1,115 @@
+package com.esig.desafio.ratelimit;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // auth: 2 por IP; tasks-search: 3 por usuário; api: 5 por usuário (reabastecimento lento).
+        filter = new RateLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), true,
+                Duration.ofMinutes(10), 2, 0.01, 3, 0.01, 5, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("deve responder 429 com Retry-After quando o usuário esgotar o limite de GET /tasks")
+    void tasksSearch_ShouldRejectAfterCapacity() throws Exception {
+        authenticate(1L);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform("GET", "/tasks", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse rejected = perform("GET", "/tasks", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+        assertTrue(rejected.getContentAsString().contains("Muitas requisições"));
+    }
+
+    @Test
+    @DisplayName("deve manter baldes separados por usuário e por grupo de endpoints")
+    void shouldKeepBucketsPerUserAndGroup() throws Exception {
+        authenticate(1L);
+        for (int i = 0; i < 3; i++) {
+            perform("GET", "/tasks", "10.0.0.1");
+        }
+        assertEquals(429, perform("GET", "/tasks", "10.0.0.1").getStatus());
+        assertEquals(200, perform("PUT", "/tasks/7", "10.0.0.1").getStatus());
+
+        authenticate(2L);
+        assertEquals(200, perform("GET", "/tasks", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    @DisplayName("deve limitar /auth/login por IP, mesmo sem usuário autenticado")
+    void login_ShouldBeLimitedPerIp() throws Exception {
+        assertEquals(200, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/auth/register", "10.0.0.1").getStatus());
+        assertEquals(429, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+
+        assertEquals(200, perform("POST", "/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    @DisplayName("não deve limitar requisições anônimas fora de /auth nem quando desativado")
+    void shouldSkipAnonymousAndDisabled() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/tasks", "10.0.0.1").getStatus());
+        }
+
+        filter = new RateLimitFilter(new ObjectMapper(), false, Duration.ofMinutes(10), 1, 0.01, 1, 0.01, 1, 0.01);
+        authenticate(1L);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/tasks", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("TokenBucket deve reabastecer conforme a taxa configurada")
+    void tokenBucket_ShouldRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 10); // uma ficha a cada 100 ms
+        long now = 0;
+
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(100_000_000L, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now + 100_000_000L));
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void authenticate(Long id) {
+        AuthenticatedUser user = new AuthenticatedUser(id, "Usuário " + id, "u" + id + "@exemplo.com", "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
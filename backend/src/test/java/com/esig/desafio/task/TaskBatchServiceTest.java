@@ -0,0 +1,108 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.esig.desafio.user.UserService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private UserService userService;
+
+    private TaskBatchService taskBatchService;
+
+    private final AuthenticatedUser actor = new AuthenticatedUser(1L, "Usuário Teste", "teste@exemplo.com", "ROLE_USER");
+
+    @BeforeEach
+    void setUp() {
+        taskBatchService = new TaskBatchService(
+                taskService,
+                userService,
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+    }
+
+    private TaskBatchOperation operation(TaskBatchOperationType type, Long id) {
+        TaskBatchOperation operation = new TaskBatchOperation();
+        operation.setType(type);
+        operation.setId(id);
+        return operation;
+    }
+
+    @Test
+    @DisplayName("execute deve retornar resultado por item, mantendo as regras de permissão do TaskService")
+    void execute_ShouldReportResultPerItem() {
+        TaskRequest request = new TaskRequest();
+        request.setTitle("Nova tarefa");
+        request.setPriority(TaskPriority.ALTA);
+        request.setDeadline(LocalDate.now().plusDays(1));
+        TaskBatchOperation create = operation(TaskBatchOperationType.CREATE, null);
+        create.setTask(request);
+
+        when(taskService.create(any(Task.class), eq(actor))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(100L);
+            return task;
+        });
+        when(taskService.complete(10L, actor, null)).thenReturn(TaskResponse.builder().id(10L).build());
+        doThrow(new AccessDeniedException("Você não tem permissão para alterar esta tarefa."))
+                .when(taskService).delete(11L, actor, null);
+        when(taskService.complete(12L, actor, null)).thenThrow(new EntityNotFoundException("Tarefa não encontrada com id: 12"));
+
+        TaskBatchResponse response = taskBatchService.execute(List.of(
+                create,
+                operation(TaskBatchOperationType.COMPLETE, 10L),
+                operation(TaskBatchOperationType.DELETE, 11L),
+                operation(TaskBatchOperationType.COMPLETE, 12L)
+        ), actor);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(201, response.getResults().get(0).getStatus());
+        assertEquals(100L, response.getResults().get(0).getId());
+        assertEquals(200, response.getResults().get(1).getStatus());
+        assertEquals(403, response.getResults().get(2).getStatus());
+        assertEquals(404, response.getResults().get(3).getStatus());
+    }
+
+    @Test
+    @DisplayName("execute deve rejeitar itens inválidos sem chamar o TaskService")
+    void execute_ShouldRejectInvalidItems() {
+        TaskBatchOperation createWithoutTitle = operation(TaskBatchOperationType.CREATE, null);
+        TaskRequest request = new TaskRequest();
+        request.setPriority(TaskPriority.BAIXA);
+        request.setDeadline(LocalDate.now());
+        createWithoutTitle.setTask(request);
+
+        TaskBatchResponse response = taskBatchService.execute(List.of(
+                createWithoutTitle,
+                operation(TaskBatchOperationType.UPDATE, null)
+        ), actor);
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(400, response.getResults().get(0).getStatus());
+        assertTrue(response.getResults().get(0).getMessage().startsWith("task.title"));
+        assertEquals(400, response.getResults().get(1).getStatus());
+        verifyNoInteractions(taskService);
+    }
+}
@@ -0,0 +1,153 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import com.esig.desafio.user.User;
+import com.esig.desafio.user.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Lote em uma transação real (H2): a versão de uma tarefa muda por fora entre dois itens.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({TaskService.class, TaskBatchService.class, TaskBatchServiceTransactionTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class TaskBatchServiceTransactionTest {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "Admin", "admin@exemplo.com", "ROLE_ADMIN");
+
+    @Autowired
+    private TaskBatchService taskBatchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @MockBean
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("conflito de versão deve falhar apenas no próprio item; os demais gravam e publicam a nova versão")
+    void execute_ShouldIsolateVersionConflictToItsItem() {
+        Task first = saveTask("Primeira");
+        Task conflicting = saveTask("Em conflito");
+        Task last = saveTask("Última");
+
+        // Outra requisição altera a tarefa depois do primeiro item e antes de o segundo lê-la
+        // (o segundo item resolve o responsável antes de ler a tarefa).
+        doAnswer(invocation -> {
+            TransactionTemplate other = new TransactionTemplate(transactionManager);
+            other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            other.executeWithoutResult(status -> jdbcTemplate.update(
+                    "update tasks set title = 'Alterada por outra requisição', version = version + 1 where id = ?",
+                    conflicting.getId()));
+            return User.builder().id(7L).name("Maria").email("maria@exemplo.com").build();
+        }).when(userService).getByIdOrThrow(7L);
+
+        TaskBatchOperation conflictingRename = rename(conflicting, "Alteração perdida");
+        conflictingRename.getChanges().setResponsibleUserId(7L);
+
+        TaskBatchResponse response = taskBatchService.execute(List.of(
+                rename(first, "Primeira alterada"),
+                conflictingRename,
+                rename(last, "Última alterada")
+        ), ADMIN);
+
+        assertEquals(List.of(200, 412, 200), response.getResults().stream().map(TaskBatchItemResult::getStatus).toList());
+        assertEquals(2, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+
+        assertEquals("Primeira alterada", title(first));
+        assertEquals("Alterada por outra requisição", title(conflicting));
+        assertEquals("Última alterada", title(last));
+
+        List<TaskChangeEvent> published = events.stream(TaskChangeEvent.class).toList();
+        assertEquals(List.of(first.getId(), last.getId()), published.stream().map(event -> event.getTask().getId()).toList());
+        for (TaskChangeEvent event : published) {
+            assertEquals(event.getPrevious().getVersion() + 1, event.getTask().getVersion());
+            assertEquals(version(event.getTask().getId()), event.getTask().getVersion());
+            assertNotEquals(event.getPrevious().getUpdatedAt(), event.getTask().getUpdatedAt());
+        }
+    }
+
+    private Task saveTask(String title) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .responsible("")
+                .priority(TaskPriority.MEDIA)
+                .deadline(LocalDate.now().plusDays(1))
+                .status(TaskStatus.EM_ANDAMENTO)
+                .build());
+    }
+
+    private TaskBatchOperation rename(Task task, String title) {
+        TaskUpdateRequest changes = new TaskUpdateRequest();
+        changes.setTitle(title);
+        TaskBatchOperation operation = new TaskBatchOperation();
+        operation.setType(TaskBatchOperationType.UPDATE);
+        operation.setId(task.getId());
+        operation.setVersion(task.getVersion());
+        operation.setChanges(changes);
+        return operation;
+    }
+
+    private String title(Task task) {
+        return jdbcTemplate.queryForObject("select title from tasks where id = ?", String.class, task.getId());
+    }
+
+    private Long version(Long id) {
+        return jdbcTemplate.queryForObject("select version from tasks where id = ?", Long.class, id);
+    }
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskChangeEventTest {
+
+    private static final AuthenticatedUser USER_1 = new AuthenticatedUser(1L, "User 1", "user1@exemplo.com", "ROLE_USER");
+    private static final AuthenticatedUser USER_2 = new AuthenticatedUser(2L, "User 2", "user2@exemplo.com", "ROLE_USER");
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(99L, "Admin", "admin@exemplo.com", "ROLE_ADMIN");
+
+    private TaskChangeEvent event(Long responsibleId, Long previousResponsibleId) {
+        TaskResponse task = TaskResponse.builder().id(10L).responsibleId(responsibleId).build();
+        TaskResponse previous = TaskResponse.builder().id(10L).responsibleId(previousResponsibleId).build();
+        return new TaskChangeEvent(TaskChangeType.UPDATED, task, previous);
+    }
+
+    @Test
+    @DisplayName("isVisibleTo deve seguir a regra da listagem: próprio usuário ou tarefa sem responsável")
+    void isVisibleTo_ShouldFollowListingRule() {
+        assertTrue(event(1L, 1L).isVisibleTo(USER_1));
+        assertFalse(event(1L, 1L).isVisibleTo(USER_2));
+        assertTrue(event(null, null).isVisibleTo(USER_2));
+        assertFalse(new TaskChangeEvent(TaskChangeType.DELETED,
+                TaskResponse.builder().id(10L).responsibleId(1L).build(), null).isVisibleTo(USER_2));
+        assertTrue(event(1L, 1L).isVisibleTo(ADMIN));
+    }
+
+    @Test
+    @DisplayName("isVisibleTo deve avisar quem deixou de enxergar a tarefa após troca de responsável")
+    void isVisibleTo_ShouldIncludePreviousResponsible() {
+        assertTrue(event(2L, 1L).isVisibleTo(USER_1));
+        assertTrue(event(2L, null).isVisibleTo(USER_1));
+        assertFalse(event(2L, 2L).isVisibleTo(USER_1));
+    }
+}
@@ -0,0 +1,107 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TaskChangeStreamTest {
+
+    private static final int SUBSCRIBERS = 8;
+    private static final int EVENTS = 200;
+
+    private final TaskChangeStream taskChangeStream = new TaskChangeStream(EVENTS + 10, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("todos os assinantes devem receber cada evento exatamente uma vez, íntegro e em ordem")
+    void onTaskChange_ShouldDeliverSameEventToConcurrentSubscribers() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(taskChangeStream)).build();
+
+        List<MvcResult> streams = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            streams.add(mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn());
+        }
+        assertEquals(SUBSCRIBERS, taskChangeStream.getSubscriberCount());
+
+        for (long id = 1; id <= EVENTS; id++) {
+            taskChangeStream.onTaskChange(TaskChangeEvent.created(task(id)));
+        }
+
+        for (MvcResult stream : streams) {
+            String body = awaitEvents(stream);
+            List<Long> received = new ArrayList<>();
+            Matcher matcher = Pattern.compile("id:(\\d+)\nevent:CREATED\ndata:\\{\"id\":(\\d+),").matcher(body);
+            while (matcher.find()) {
+                assertEquals(matcher.group(1), matcher.group(2), "id do evento e da tarefa devem coincidir");
+                received.add(Long.parseLong(matcher.group(2)));
+            }
+            assertEquals(EVENTS, received.size(), body);
+            for (int i = 0; i < EVENTS; i++) {
+                assertEquals(i + 1L, received.get(i));
+            }
+        }
+    }
+
+    private static String awaitEvents(MvcResult stream) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String body = stream.getResponse().getContentAsString();
+        while (countOccurrences(body, "event:CREATED") < EVENTS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(countOccurrences(body, "event:CREATED") >= EVENTS, body);
+        return body;
+    }
+
+    private static int countOccurrences(String text, String token) {
+        int count = 0;
+        for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Task task(long id) {
+        return Task.builder()
+                .id(id)
+                .title("Tarefa " + id)
+                .responsible("")
+                .priority(TaskPriority.MEDIA)
+                .deadline(LocalDate.of(2025, 1, 1))
+                .status(TaskStatus.EM_ANDAMENTO)
+                .build();
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final TaskChangeStream taskChangeStream;
+
+        StreamController(TaskChangeStream taskChangeStream) {
+            this.taskChangeStream = taskChangeStream;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return taskChangeStream.subscribe(
+                    new AuthenticatedUser(1L, "Admin", "admin@exemplo.com", "ROLE_ADMIN"));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.esig.desafio.task;
 
+import com.esig.desafio.auth.AuthenticatedUser;
 import com.esig.desafio.user.User;
 import com.esig.desafio.user.UserService;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,12 +20,21 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +49,21 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskBatchService taskBatchService;
+
+    @MockBean
+    private TaskExportService taskExportService;
+
+    @MockBean
+    private TaskImportService taskImportService;
+
+    @MockBean
+    private TaskChangeStream taskChangeStream;
+
+    @MockBean
+    private TaskStatsService taskStatsService;
+
     @MockBean
     private UserService userService;
 
@@ -54,9 +80,9 @@ class TaskControllerTest {
     }
 
     private void mockAuthentication(User user) {
-        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), "x");
+        AuthenticatedUser principal = AuthenticatedUser.fromUser(user);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(auth);
-        when(userService.getByEmailOrThrow(user.getEmail())).thenReturn(user);
     }
 
     @Test
@@ -70,20 +96,20 @@ class TaskControllerTest {
                 .title("Nova tarefa")
                 .description("Descrição")
                 .priority(TaskPriority.ALTA)
-                .deadline(LocalDate.of(2025, 12, 31))
+                .deadline(LocalDate.of(2099, 12, 31))
                 .status(TaskStatus.EM_ANDAMENTO)
                 .user(user)
                 .responsible(user.getName())
                 .build();
 
-        when(taskService.create(any(Task.class), any(User.class))).thenReturn(created);
+        when(taskService.create(any(Task.class), any(AuthenticatedUser.class))).thenReturn(created);
 
         String json = """
                 {
                   "title": "Nova tarefa",
                   "description": "Descrição",
                   "priority": "ALTA",
-                  "deadline": "2025-12-31"
+                  "deadline": "2099-12-31"
                 }
                 """;
 
@@ -102,23 +128,163 @@ class TaskControllerTest {
         User user = authenticatedUser();
         mockAuthentication(user);
 
-        Task task = Task.builder()
+        TaskResponse task = TaskResponse.builder()
                 .id(10L)
                 .title("Tarefa listada")
                 .priority(TaskPriority.MEDIA)
                 .deadline(LocalDate.of(2025, 11, 30))
                 .status(TaskStatus.EM_ANDAMENTO)
-                .user(user)
+                .responsibleId(user.getId())
                 .responsible(user.getName())
                 .build();
 
-        when(taskService.search(any(), any(), any(), any(), any(), any(), any()))
+        when(taskService.getCollectionETag(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("\"lista-v1\"");
+        when(taskService.searchResponses(any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(List.of(task));
 
         mockMvc.perform(get("/tasks"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"lista-v1\""))
                 .andExpect(jsonPath("$[0].title").value("Tarefa listada"));
+
+        verify(taskService).searchResponses(any(), any(), any(), any(), any(), eq(1L), any(), any());
+        verifyNoInteractions(userService);
     }
-}
 
+    @Test
+    @DisplayName("GET /tasks com fields deve ler e retornar apenas os campos pedidos")
+    void listTasks_ShouldReturnOnlySelectedFields() throws Exception {
+        mockAuthentication(authenticatedUser());
 
+        TaskResponse task = TaskResponse.builder()
+                .id(10L)
+                .title("Tarefa listada")
+                .build();
+
+        when(taskService.getCollectionETag(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("\"lista-v1\"");
+        when(taskService.searchResponses(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(task));
+
+        mockMvc.perform(get("/tasks").param("fields", "title,id,responsibleId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[0].title").value("Tarefa listada"))
+                .andExpect(jsonPath("$[0].responsibleId").value(nullValue()))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+
+        verify(taskService).searchResponses(any(), any(), any(), any(), any(), any(), any(),
+                eq(EnumSet.of(TaskField.ID, TaskField.TITLE, TaskField.RESPONSIBLE_ID)));
+    }
+
+    @Test
+    @DisplayName("GET /tasks com campo desconhecido em fields deve retornar 400")
+    void listTasks_ShouldRejectUnknownField() throws Exception {
+        mockAuthentication(authenticatedUser());
+
+        mockMvc.perform(get("/tasks").param("fields", "id,senha"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).searchResponses(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks com limit deve retornar página com nextCursor")
+    void listTasksPaged_ShouldReturnPageWithCursor() throws Exception {
+        User user = authenticatedUser();
+        mockAuthentication(user);
+
+        TaskResponse task = TaskResponse.builder()
+                .id(10L)
+                .title("Tarefa paginada")
+                .priority(TaskPriority.ALTA)
+                .deadline(LocalDate.of(2025, 11, 30))
+                .status(TaskStatus.EM_ANDAMENTO)
+                .responsibleId(user.getId())
+                .responsible(user.getName())
+                .build();
+
+        when(taskService.searchPage(any(), any(), any(), any(), any(), any(), any(), any(), eq(1), any()))
+                .thenReturn(new TaskPage(List.of(task), "CURSOR"));
+
+        mockMvc.perform(get("/tasks").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Tarefa paginada"))
+                .andExpect(jsonPath("$.nextCursor").value("CURSOR"));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/{id} com If-None-Match atual deve retornar 304 sem carregar a tarefa")
+    void getById_ShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        mockAuthentication(authenticatedUser());
+        when(taskService.getETagOrThrow(10L, TaskField.ALL)).thenReturn("\"3\"");
+
+        mockMvc.perform(get("/tasks/10").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(taskService, never()).getResponseByIdOrThrow(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks com If-None-Match atual deve retornar 304 sem executar a busca")
+    void listTasks_ShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        mockAuthentication(authenticatedUser());
+        when(taskService.getCollectionETag(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("\"lista-v1\"");
+
+        mockMvc.perform(get("/tasks").header("If-None-Match", "\"lista-v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).searchResponses(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("PATCH /tasks/{id}/concluir deve repassar a versão do If-Match e retornar o ETag da nova versão")
+    void complete_ShouldUseIfMatchAndReturnNewETag() throws Exception {
+        mockAuthentication(authenticatedUser());
+        TaskResponse completed = TaskResponse.builder()
+                .id(10L)
+                .status(TaskStatus.CONCLUIDA)
+                .version(4L)
+                .build();
+
+        when(taskService.complete(eq(10L), any(AuthenticatedUser.class), eq(3L))).thenReturn(completed);
+
+        mockMvc.perform(patch("/tasks/10/concluir").header("If-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{id} com If-Match desatualizado deve retornar 412")
+    void update_ShouldReturnPreconditionFailedOnVersionConflict() throws Exception {
+        mockAuthentication(authenticatedUser());
+        when(taskService.update(eq(10L), any(Task.class), any(AuthenticatedUser.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("A tarefa foi alterada por outra requisição (versão atual: 3)."));
+
+        mockMvc.perform(put("/tasks/10")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Novo título\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{id} com If-Match malformado deve retornar 400")
+    void update_ShouldReturnBadRequestOnInvalidIfMatch() throws Exception {
+        mockAuthentication(authenticatedUser());
+
+        mockMvc.perform(put("/tasks/10")
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Novo título\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).update(any(), any(), any(), any());
+    }
+}
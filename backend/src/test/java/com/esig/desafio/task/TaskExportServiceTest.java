@@ -0,0 +1,94 @@
+package com.esig.desafio.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        TaskService taskService = new TaskService(taskRepository, null, new SimpleMeterRegistry());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        taskExportService = new TaskExportService(taskService, taskRepository, objectMapper);
+        ReflectionTestUtils.setField(taskExportService, "entityManager", entityManager);
+    }
+
+    private Task task(Long id, String title) {
+        return Task.builder()
+                .id(id)
+                .title(title)
+                .responsible("")
+                .priority(TaskPriority.ALTA)
+                .deadline(LocalDate.of(2025, 1, 1))
+                .status(TaskStatus.EM_ANDAMENTO)
+                .build();
+    }
+
+    @Test
+    @DisplayName("export CSV deve escrever cabeçalho, escapar campos e desanexar cada tarefa")
+    void exportCsv_ShouldEscapeFieldsAndDetachRows() throws Exception {
+        Task first = task(1L, "Simples");
+        Task second = task(2L, "Com, vírgula e \"aspas\"");
+        when(taskRepository.streamAll(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(TaskExportService.FETCH_SIZE)))
+                .thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.export(null, null, null, null, null, null, true, TaskExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,title,"));
+        assertTrue(lines[1].startsWith("1,Simples,,,ALTA,2025-01-01,EM_ANDAMENTO,"));
+        assertTrue(lines[2].startsWith("2,\"Com, vírgula e \"\"aspas\"\"\","));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("export NDJSON deve escrever um objeto JSON por linha")
+    void exportNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        when(taskRepository.streamAll(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(TaskExportService.FETCH_SIZE)))
+                .thenReturn(Stream.of(task(1L, "Primeira"), task(2L, "Segunda")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.export(null, null, null, null, null, null, true, TaskExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"title\":\"Primeira\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.user.User;
+import com.esig.desafio.user.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskImportService taskImportService;
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportService(
+                userService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager),
+                eventPublisher
+        );
+        ReflectionTestUtils.setField(taskImportService, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("importCsv deve gravar linhas válidas, resolver responsáveis em lote e reportar erros por linha")
+    void importCsv_ShouldPersistValidRowsAndReportErrors() throws Exception {
+        String deadline = LocalDate.now().plusDays(10).toString();
+        String csv = "title,description,priority,deadline,responsibleEmail\n"
+                + "Tarefa 1,\"Descrição, com vírgula\",ALTA," + deadline + ",joao@exemplo.com\n"
+                + "Tarefa 2,,baixa," + deadline + ",\n"
+                + ",Sem título,MEDIA," + deadline + ",\n"
+                + "Tarefa 4,,URGENTE," + deadline + ",\n"
+                + "Tarefa 5,,MEDIA," + deadline + ",naoexiste@exemplo.com\n";
+
+        User joao = User.builder().id(7L).name("João").email("joao@exemplo.com").build();
+        when(userService.findByEmails(Set.of("joao@exemplo.com", "naoexiste@exemplo.com"))).thenReturn(List.of(joao));
+        when(userService.getReference(7L)).thenReturn(joao);
+
+        TaskImportResponse response = taskImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, response.getTotalRows());
+        assertEquals(2, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertEquals(List.of(4L, 5L, 6L), response.getErrors().stream().map(TaskImportError::getLine).sorted().toList());
+
+        ArgumentCaptor<Task> persisted = ArgumentCaptor.forClass(Task.class);
+        verify(entityManager, times(2)).persist(persisted.capture());
+        Task first = persisted.getAllValues().get(0);
+        assertEquals("Descrição, com vírgula", first.getDescription());
+        assertSame(joao, first.getUser());
+        assertEquals("João", first.getResponsible());
+        assertEquals(TaskPriority.BAIXA, persisted.getAllValues().get(1).getPriority());
+        verify(userService, times(1)).findByEmails(any());
+
+        ArgumentCaptor<TaskChangeEvent> events = ArgumentCaptor.forClass(TaskChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.getType() == TaskChangeType.CREATED));
+        assertEquals(7L, events.getAllValues().get(0).getTask().getResponsibleId());
+    }
+
+    @Test
+    @DisplayName("importCsv deve reportar registro malformado como erro de linha e manter os blocos já gravados")
+    void importCsv_ShouldReportMalformedRecordAndKeepCommittedChunks() throws Exception {
+        String deadline = LocalDate.now().plusDays(10).toString();
+        StringBuilder csv = new StringBuilder("title,priority,deadline\n");
+        for (int i = 1; i <= TaskImportService.BATCH_SIZE; i++) {
+            csv.append("Tarefa ").append(i).append(",MEDIA,").append(deadline).append('\n');
+        }
+        csv.append("\"Aspas não fechadas,ALTA,").append(deadline).append('\n');
+
+        TaskImportResponse response = taskImportService.importCsv(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(TaskImportService.BATCH_SIZE + 1, response.getTotalRows());
+        assertEquals(TaskImportService.BATCH_SIZE, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(TaskImportService.BATCH_SIZE + 2, response.getErrors().get(0).getLine());
+        verify(entityManager, times(TaskImportService.BATCH_SIZE)).persist(any(Task.class));
+        verify(eventPublisher, times(TaskImportService.BATCH_SIZE)).publishEvent(any(TaskChangeEvent.class));
+    }
+
+    @Test
+    @DisplayName("importCsv deve rejeitar arquivo sem as colunas obrigatórias")
+    void importCsv_ShouldRejectMissingColumns() {
+        assertThrows(IllegalArgumentException.class, () -> taskImportService.importCsv(
+                new ByteArrayInputStream("title,description\nA,B\n".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,217 @@
+package com.esig.desafio.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica, sobre um PostgreSQL embutido com as migrações Flyway e uma tabela tasks grande, que nenhuma
+ * combinação de filtros da listagem lê a tabela inteira (Seq Scan).
+ *
+ * Cada combinação executa as consultas reais de {@link TaskService} (listagem completa, página e ETag)
+ * em uma transação e compara os contadores de {@code pg_stat_xact_user_tables} antes e depois da consulta.
+ * Assim o plano verificado é o do SQL e dos parâmetros que o Hibernate envia.
+ *
+ * A massa imita o uso real: a maioria das tarefas está concluída, as abertas são as mais recentes
+ * (fisicamente no fim da tabela) e as sem responsável são quase todas abertas.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.esig.desafio.task.TaskQueryPlanTest$LastStatement"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskQueryPlanTest {
+
+    private static final int USERS = 1_000;
+    private static final int TASKS = 200_000;
+
+    private static final String TITLE = "cliente 137";
+    private static final String RESPONSIBLE = "ana oliveira";
+    private static final LocalDate DEADLINE_FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DEADLINE_TO = LocalDate.of(2025, 3, 7);
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    @DisplayName("nenhuma combinação de filtros da listagem deve fazer Seq Scan em tasks")
+    void everyFilterCombination_ShouldUseIndexes() {
+        seed();
+        TaskService taskService = new TaskService(taskRepository, event -> { }, new SimpleMeterRegistry());
+        Long ownerId = jdbcTemplate.queryForObject("SELECT min(id) FROM users", Long.class);
+
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        // Bits: 1 = título, 2 = responsável, 4 = prioridade, 8 = faixa de prazo, 16 = visibilidade do ROLE_USER.
+        for (int filters = 0; filters < 32; filters++) {
+            for (boolean onlyNotConcluded : new boolean[]{true, false}) {
+                String title = (filters & 1) != 0 ? TITLE : null;
+                String responsible = (filters & 2) != 0 ? RESPONSIBLE : null;
+                TaskPriority priority = (filters & 4) != 0 ? TaskPriority.ALTA : null;
+                LocalDate from = (filters & 8) != 0 ? DEADLINE_FROM : null;
+                LocalDate to = (filters & 8) != 0 ? DEADLINE_TO : null;
+                Long owner = (filters & 16) != 0 ? ownerId : null;
+
+                String combination = "title=" + title + ", responsible=" + responsible + ", priority=" + priority
+                        + ", deadline=" + from + ".." + to + ", ownerId=" + owner + ", onlyNotConcluded=" + onlyNotConcluded;
+
+                // Sem filtro seletivo, lista completa e ETag percorrem pelo menos um terço da tabela:
+                // aí a leitura sequencial é o plano certo. A página (com limit) é sempre verificada.
+                boolean selective = onlyNotConcluded || (filters & (1 | 2 | 8 | 16)) != 0;
+
+                if (selective) {
+                    check(failures, "searchResponses[" + combination + "]", () -> taskService.searchResponses(
+                            title, responsible, priority, from, to, owner, onlyNotConcluded, TaskField.ALL));
+                    check(failures, "getCollectionETag[" + combination + "]", () -> taskService.getCollectionETag(
+                            title, responsible, priority, from, to, owner, onlyNotConcluded, TaskField.ALL));
+                    checked += 2;
+                }
+                check(failures, "searchPage[" + combination + "]", () -> taskService.searchPage(
+                        title, responsible, priority, from, to, owner, onlyNotConcluded, null, 20, TaskField.ALL));
+                checked++;
+            }
+        }
+
+        assertTrue(failures.isEmpty(), failures.size() + " de " + checked + " consultas com Seq Scan em tasks:\n"
+                + String.join("\n", failures));
+    }
+
+    /**
+     * Executa a consulta em uma transação somente leitura e registra uma falha se houve varredura sequencial.
+     */
+    private void check(List<String> failures, String name, Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            long before = seqScans();
+            query.run();
+            if (seqScans() > before) {
+                failures.add(name + "\n    " + LastStatement.sql);
+            }
+        });
+    }
+
+    /**
+     * Os contadores da sessão só são descarregados de tempos em tempos e podem trazer varreduras de
+     * transações anteriores; por isso a comparação é feita com a leitura do início da transação.
+     */
+    private long seqScans() {
+        Long seqScans = jdbcTemplate.queryForObject(
+                "SELECT seq_scan FROM pg_stat_xact_user_tables WHERE relname = 'tasks'", Long.class);
+        return seqScans != null ? seqScans : 0;
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, password, roles)
+                SELECT (ARRAY['Ana', 'Bruno', 'Carla', 'Diego', 'Elisa', 'Fábio', 'Gabriela', 'Hugo', 'Isabel', 'João',
+                              'Karina', 'Lucas', 'Marina', 'Nelson', 'Olívia', 'Paulo', 'Renata', 'Sérgio', 'Tânia', 'Vítor'])[1 + g % 20]
+                       || ' ' ||
+                       (ARRAY['Oliveira', 'Souza', 'Lima', 'Pereira', 'Costa', 'Rodrigues', 'Almeida', 'Nascimento', 'Araújo', 'Ribeiro',
+                              'Carvalho', 'Gomes', 'Martins', 'Rocha', 'Barbosa', 'Ferreira', 'Dias', 'Teixeira', 'Moreira', 'Cardoso',
+                              'Mendes', 'Freitas', 'Vieira', 'Monteiro', 'Correia', 'Batista', 'Cavalcanti', 'Ramos', 'Moura', 'Nunes',
+                              'Castro', 'Pinto', 'Campos', 'Cunha', 'Machado', 'Lopes', 'Santana', 'Farias', 'Duarte', 'Reis',
+                              'Andrade', 'Fonseca', 'Borges', 'Siqueira', 'Medeiros', 'Azevedo', 'Tavares', 'Pires', 'Brito', 'Peixoto'])[1 + g / 20]
+                       AS name,
+                       'plano-' || g || '@exemplo.com', 'x', 'ROLE_USER'
+                FROM generate_series(0, ? - 1) g
+                """, USERS);
+
+        // Tarefas em ordem de criação: o prazo acompanha a data de criação; as 5% mais recentes estão abertas.
+        // A semente e o INSERT rodam na mesma conexão, para a massa ser sempre a mesma.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT setseed(0.42)");
+            jdbcTemplate.update("""
+                INSERT INTO tasks (title, responsible, priority, priority_rank, deadline, status, user_id)
+                SELECT s.title, coalesce(u.name, ''), (ARRAY['ALTA', 'MEDIA', 'BAIXA'])[s.rank], s.rank, s.deadline, s.status, u.id
+                FROM (
+                    SELECT g,
+                           (ARRAY['Revisar', 'Enviar', 'Atualizar', 'Preparar', 'Validar'])[1 + floor(random() * 5)::int] || ' ' ||
+                           (ARRAY['contrato', 'relatório', 'orçamento', 'proposta', 'planilha', 'cadastro', 'apresentação', 'fatura',
+                                  'pedido', 'manual', 'inventário', 'projeto', 'cronograma', 'backup', 'servidor', 'campanha',
+                                  'treinamento', 'auditoria', 'reunião', 'documento', 'estoque', 'site', 'aplicativo', 'banco',
+                                  'folha', 'nota', 'entrega', 'checklist', 'roteiro', 'parecer', 'ofício', 'laudo',
+                                  'recibo', 'boleto', 'edital', 'protocolo', 'convênio', 'licença', 'certidão', 'balanço'])[1 + floor(random() * 40)::int]
+                           || ' - cliente ' || floor(random() * 500)::int AS title,
+                           1 + floor(random() * 3)::int AS rank,
+                           DATE '2023-01-01' + (g * 1095 / ?) + floor(random() * 60)::int AS deadline,
+                           CASE WHEN g > ? * 0.95 OR random() < 0.002 THEN 'EM_ANDAMENTO' ELSE 'CONCLUIDA' END AS status,
+                           random() AS r
+                    FROM generate_series(1, ?) g
+                ) s
+                LEFT JOIN (SELECT id, name, row_number() OVER (ORDER BY id) - 1 AS n FROM users) u
+                       ON u.n = floor(s.r * 10000)::int % ?
+                      AND NOT (s.status = 'EM_ANDAMENTO' AND s.r < 0.3)
+                      AND NOT (s.status = 'CONCLUIDA' AND s.r > 0.998)
+                """, TASKS, TASKS, TASKS, USERS);
+        });
+
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+        jdbcTemplate.execute("VACUUM ANALYZE tasks");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Não foi possível iniciar o PostgreSQL embutido.", ex);
+        }
+    }
+
+    /**
+     * Guarda o último SQL preparado pelo Hibernate, para a mensagem de falha.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+}
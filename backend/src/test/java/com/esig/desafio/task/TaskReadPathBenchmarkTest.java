@@ -0,0 +1,110 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a alocação por linha das duas formas de leitura da listagem:
+ * entidades gerenciadas + {@link TaskResponse#fromEntity} versus projeção direta em {@link TaskResponse}.
+ *
+ * Executar com: {@code mvn test -Dgroups=benchmark -DexcludedGroups=}
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+class TaskReadPathBenchmarkTest {
+
+    private static final int ROWS = 2_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 30;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Specification<Task> all = (root, query, cb) -> null;
+
+    @BeforeEach
+    void seed() {
+        User owner = User.builder()
+                .name("Responsável")
+                .email("responsavel@exemplo.com")
+                .password("x")
+                .roles("ROLE_USER")
+                .build();
+        entityManager.persist(owner);
+
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Tarefa " + i)
+                    .description("Descrição da tarefa " + i)
+                    .responsible(i % 2 == 0 ? owner.getName() : "")
+                    .priority(TaskPriority.values()[i % 3])
+                    .deadline(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                    .user(i % 2 == 0 ? owner : null)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("projeção em TaskResponse deve alocar menos por linha que hidratar entidades")
+    void projection_ShouldAllocateLessPerRowThanEntityHydration() {
+        Supplier<List<TaskResponse>> entityPath = () -> taskRepository.findAll(all, TaskService.LISTING_ORDER)
+                .stream()
+                .map(TaskResponse::fromEntity)
+                .toList();
+        Supplier<List<TaskResponse>> projectionPath = () ->
+                taskRepository.findResponses(all, TaskService.LISTING_ORDER, 0);
+
+        List<TaskResponse> fromEntities = entityPath.get();
+        entityManager.clear();
+        List<TaskResponse> fromProjection = projectionPath.get();
+        assertEquals(ROWS, fromProjection.size());
+        assertEquals(fromEntities.get(0).getId(), fromProjection.get(0).getId());
+        assertEquals(fromEntities.get(0).getResponsibleId(), fromProjection.get(0).getResponsibleId());
+
+        double entityBytesPerRow = allocatedBytesPerRow(entityPath);
+        double projectionBytesPerRow = allocatedBytesPerRow(projectionPath);
+
+        System.out.printf("Leitura de %d tarefas: entidades = %.0f bytes/linha, projeção = %.0f bytes/linha (%.1f%% a menos)%n",
+                ROWS, entityBytesPerRow, projectionBytesPerRow,
+                100.0 * (entityBytesPerRow - projectionBytesPerRow) / entityBytesPerRow);
+
+        assertTrue(projectionBytesPerRow < entityBytesPerRow);
+    }
+
+    private double allocatedBytesPerRow(Supplier<List<TaskResponse>> readPath) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+            entityManager.clear();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            readPath.get();
+            total += threads.getCurrentThreadAllocatedBytes() - before;
+            entityManager.clear();
+        }
+        return (double) total / MEASURED_ITERATIONS / ROWS;
+    }
+}
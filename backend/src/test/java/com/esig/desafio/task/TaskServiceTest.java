@@ -1,20 +1,37 @@
 package com.esig.desafio.task;
 
+import com.esig.desafio.auth.AuthenticatedUser;
 import com.esig.desafio.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +40,12 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TaskService taskService;
 
@@ -36,6 +59,10 @@ class TaskServiceTest {
                 .build();
     }
 
+    private AuthenticatedUser actor(User user) {
+        return AuthenticatedUser.fromUser(user);
+    }
+
     @Test
     @DisplayName("update deve aplicar apenas campos não nulos")
     void update_ShouldApplyOnlyNonNullFields() {
@@ -57,10 +84,10 @@ class TaskServiceTest {
                 .priority(TaskPriority.ALTA)
                 .build(); // demais campos ficam nulos
 
-        when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
-        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(existing));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        Task result = taskService.update(10L, updatedData, owner);
+        Task result = taskService.update(10L, updatedData, actor(owner), null);
 
         assertEquals("Novo titulo", result.getTitle());
         assertEquals(TaskPriority.ALTA, result.getPriority());
@@ -82,10 +109,30 @@ class TaskServiceTest {
                 .user(owner)
                 .build();
 
-        when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(taskRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(existing));
 
         assertThrows(AccessDeniedException.class,
-                () -> taskService.update(10L, new Task(), other));
+                () -> taskService.update(10L, new Task(), actor(other), null));
+    }
+
+    @Test
+    @DisplayName("update deve lançar OptimisticLockingFailureException quando a versão do If-Match estiver desatualizada")
+    void update_ShouldRejectStaleVersion() {
+        User owner = userWithRole("ROLE_USER", 1L);
+
+        Task existing = Task.builder()
+                .id(10L)
+                .title("Antigo")
+                .status(TaskStatus.EM_ANDAMENTO)
+                .user(owner)
+                .version(3L)
+                .build();
+
+        when(taskRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(existing));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> taskService.update(10L, Task.builder().title("Novo").build(), actor(owner), 2L));
+        verify(taskRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -103,10 +150,10 @@ class TaskServiceTest {
                 .title("Alterado pelo admin")
                 .build();
 
-        when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
-        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(existing));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        Task result = taskService.update(10L, updatedData, admin);
+        Task result = taskService.update(10L, updatedData, actor(admin), null);
         assertEquals("Alterado pelo admin", result.getTitle());
     }
 
@@ -122,10 +169,124 @@ class TaskServiceTest {
                 .user(owner)
                 .build();
 
-        when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(taskRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(existing));
 
         assertThrows(AccessDeniedException.class,
-                () -> taskService.update(10L, new Task(), owner));
+                () -> taskService.update(10L, new Task(), actor(owner), null));
+    }
+
+    @Test
+    @DisplayName("linkToSelf deve vincular com um único UPDATE condicional e publicar UPDATED")
+    void linkToSelf_ShouldClaimWithConditionalUpdate() {
+        User self = userWithRole("ROLE_USER", 1L);
+        TaskResponse claimed = TaskResponse.builder()
+                .id(10L)
+                .title("Sem responsável")
+                .status(TaskStatus.EM_ANDAMENTO)
+                .responsible("User 1")
+                .responsibleId(1L)
+                .build();
+
+        when(taskRepository.claimIfUnassigned(eq(10L), eq(1L), eq("User 1"), isNull(), any())).thenReturn(Optional.of(claimed));
+
+        TaskResponse result = taskService.linkToSelf(10L, actor(self), null);
+
+        assertSame(claimed, result);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).saveAndFlush(any());
+
+        ArgumentCaptor<TaskChangeEvent> captor = ArgumentCaptor.forClass(TaskChangeEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        TaskChangeEvent event = captor.getValue();
+        assertEquals(TaskChangeType.UPDATED, event.getType());
+        assertEquals(1L, event.getTask().getResponsibleId());
+        assertNull(event.getPrevious().getResponsibleId());
+    }
+
+    @Test
+    @DisplayName("linkToSelf deve lançar AccessDeniedException quando outro usuário já tiver vinculado a tarefa")
+    void linkToSelf_ShouldRejectWhenAlreadyClaimed() {
+        User self = userWithRole("ROLE_USER", 1L);
+        Task claimedByOther = Task.builder()
+                .id(10L)
+                .status(TaskStatus.EM_ANDAMENTO)
+                .user(userWithRole("ROLE_USER", 2L))
+                .build();
+
+        when(taskRepository.claimIfUnassigned(eq(10L), eq(1L), any(), isNull(), any())).thenReturn(Optional.empty());
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(claimedByOther));
+
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class,
+                () -> taskService.linkToSelf(10L, actor(self), null));
+        assertEquals("Tarefa já possui responsável.", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("complete deve lançar EntityNotFoundException quando o UPDATE condicional não afetar linhas e a tarefa não existir")
+    void complete_ShouldThrowNotFoundWhenTaskDoesNotExist() {
+        User owner = userWithRole("ROLE_USER", 1L);
+
+        when(taskRepository.completeIfAllowed(eq(10L), eq(1L), eq(false), isNull(), any())).thenReturn(Optional.empty());
+        when(taskRepository.findById(10L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.complete(10L, actor(owner), null));
+    }
+
+    @Test
+    @DisplayName("complete deve ser idempotente para admin quando a tarefa já estiver concluída")
+    void complete_ShouldReturnConcludedTaskForAdmin() {
+        User admin = userWithRole("ROLE_ADMIN", 99L);
+        Task concluded = Task.builder().id(10L).title("Feita").status(TaskStatus.CONCLUIDA).build();
+
+        when(taskRepository.completeIfAllowed(eq(10L), eq(99L), eq(true), isNull(), any())).thenReturn(Optional.empty());
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(concluded));
+
+        TaskResponse result = taskService.complete(10L, actor(admin), null);
+
+        assertEquals(TaskStatus.CONCLUIDA, result.getStatus());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("delete não deve publicar evento quando o usuário não puder remover a tarefa")
+    void delete_ShouldNotPublishWhenAccessDenied() {
+        User owner = userWithRole("ROLE_USER", 1L);
+        User other = userWithRole("ROLE_USER", 2L);
+        Task existing = Task.builder().id(10L).title("Alheia").user(owner).build();
+
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
+
+        assertThrows(AccessDeniedException.class, () -> taskService.delete(10L, actor(other), null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("getResponseByIdOrThrow deve lançar EntityNotFoundException quando a projeção não existir")
+    void getResponseByIdOrThrow_ShouldThrowWhenNotFound() {
+        when(taskRepository.findResponseById(1L, TaskField.ALL)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.getResponseByIdOrThrow(1L, TaskField.ALL));
+    }
+
+    @Test
+    @DisplayName("ETags devem variar com os campos selecionados e continuar aceitos em If-Match")
+    void etags_ShouldDependOnSelectedFields() {
+        Set<TaskField> titleAndId = EnumSet.of(TaskField.TITLE, TaskField.ID);
+        when(taskRepository.findVersionById(10L)).thenReturn(Optional.of(3L));
+        when(taskRepository.findCollectionVersion(ArgumentMatchers.<Specification<Task>>any()))
+                .thenReturn(new TaskCollectionVersion(2, LocalDateTime.of(2025, 1, 1, 10, 0)));
+
+        String full = taskService.getETagOrThrow(10L, TaskField.ALL);
+        String projected = taskService.getETagOrThrow(10L, titleAndId);
+        assertEquals("\"3\"", full);
+        assertNotEquals(full, projected);
+        assertEquals(projected, taskService.getETagOrThrow(10L, EnumSet.of(TaskField.ID, TaskField.TITLE)));
+        assertEquals(3L, TaskETags.parseIfMatch(projected));
+
+        assertNotEquals(
+                taskService.getCollectionETag(null, null, null, null, null, null, true, TaskField.ALL),
+                taskService.getCollectionETag(null, null, null, null, null, null, true, titleAndId));
     }
 
     @Test
@@ -135,6 +296,59 @@ class TaskServiceTest {
 
         assertThrows(EntityNotFoundException.class, () -> taskService.getByIdOrThrow(1L));
     }
-}
 
+    @Test
+    @DisplayName("search deve delegar a ordenação por deadline, prioridade e id ao banco")
+    void search_ShouldOrderInDatabase() {
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class))).thenReturn(List.of());
+
+        taskService.search(null, null, null, null, null, null, true);
+
+        verify(taskRepository).findAll(ArgumentMatchers.<Specification<Task>>any(),
+                eq(Sort.by("deadline", "priorityRank", "id")));
+    }
+
+    @Test
+    @DisplayName("searchPage deve retornar nextCursor apontando para a última tarefa quando houver mais resultados")
+    void searchPage_ShouldReturnNextCursorWhenThereAreMoreRows() {
+        TaskResponse first = TaskResponse.builder().id(1L).priority(TaskPriority.ALTA).deadline(LocalDate.of(2025, 1, 1)).build();
+        TaskResponse second = TaskResponse.builder().id(2L).priority(TaskPriority.MEDIA).deadline(LocalDate.of(2025, 1, 1)).build();
+        TaskResponse extra = TaskResponse.builder().id(3L).priority(TaskPriority.BAIXA).deadline(LocalDate.of(2025, 1, 2)).build();
+
+        when(taskRepository.findResponses(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(3), any()))
+                .thenReturn(List.of(first, second, extra));
+
+        TaskPage page = taskService.searchPage(null, null, null, null, null, null, true, null, 2, TaskField.ALL);
+
+        assertEquals(2, page.getItems().size());
+        TaskCursor cursor = TaskCursor.decode(page.getNextCursor());
+        assertEquals(LocalDate.of(2025, 1, 1), cursor.getDeadline());
+        assertEquals(2, cursor.getPriorityRank());
+        assertEquals(2L, cursor.getId());
 
+        // A métrica conta as linhas lidas do banco, incluindo a linha extra usada para detectar a próxima página.
+        assertEquals(3.0, meterRegistry.get("tasks.search.rows").tag("operation", "searchPage").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("searchPage não deve retornar nextCursor na última página")
+    void searchPage_ShouldNotReturnCursorOnLastPage() {
+        TaskResponse only = TaskResponse.builder().id(1L).priority(TaskPriority.ALTA).deadline(LocalDate.of(2025, 1, 1)).build();
+
+        when(taskRepository.findResponses(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), eq(3), any())).thenReturn(List.of(only));
+
+        TaskPage page = taskService.searchPage(null, null, null, null, null, null, true, null, 2, TaskField.ALL);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("searchPage deve rejeitar limit fora do intervalo e cursor inválido")
+    void searchPage_ShouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.searchPage(null, null, null, null, null, null, true, null, 0, TaskField.ALL));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.searchPage(null, null, null, null, null, null, true, "não-é-cursor", 10, TaskField.ALL));
+    }
+}
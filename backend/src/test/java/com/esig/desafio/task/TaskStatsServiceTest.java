@@ -0,0 +1,181 @@
+package com.esig.desafio.task;
+
+import com.esig.desafio.auth.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsServiceTest {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(99L, "Admin", "admin@exemplo.com", "ROLE_ADMIN");
+    private static final AuthenticatedUser USER_1 = new AuthenticatedUser(1L, "User 1", "user1@exemplo.com", "ROLE_USER");
+
+    private final LocalDate today = LocalDate.now();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private TaskStatsService taskStatsService;
+
+    @BeforeEach
+    void setUp() {
+        when(taskRepository.countGroupedForStats()).thenReturn(List.of(
+                new TaskStatsRow(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.ALTA, today.minusDays(1), 2L),
+                new TaskStatsRow(2L, TaskStatus.CONCLUIDA, TaskPriority.BAIXA, today.minusDays(1), 3L),
+                new TaskStatsRow(null, TaskStatus.EM_ANDAMENTO, TaskPriority.MEDIA, today, 1L)
+        ));
+        taskStatsService.reconcile();
+    }
+
+    private TaskResponse task(Long responsibleId, TaskStatus status, TaskPriority priority, LocalDate deadline) {
+        return TaskResponse.builder()
+                .id(10L)
+                .responsibleId(responsibleId)
+                .status(status)
+                .priority(priority)
+                .deadline(deadline)
+                .build();
+    }
+
+    @Test
+    @DisplayName("reconcile deve montar os contadores gerais e por responsável a partir da consulta agregada")
+    void reconcile_ShouldBuildCountersFromAggregateRows() {
+        TaskStatsResponse stats = taskStatsService.getStats(ADMIN);
+
+        assertEquals(6, stats.getGlobal().getTotal());
+        assertEquals(3L, stats.getGlobal().getByStatus().get(TaskStatus.CONCLUIDA));
+        assertEquals(2L, stats.getGlobal().getByPriority().get(TaskPriority.ALTA));
+        // Concluídas não contam como atrasadas
+        assertEquals(2, stats.getGlobal().getOverdue());
+        assertEquals(1, stats.getGlobal().getDueThisWeek());
+        assertEquals(1, stats.getUnassigned().getTotal());
+        assertEquals(List.of(1L, 2L), stats.getByResponsible().stream().map(TaskStats::getResponsibleId).toList());
+    }
+
+    @Test
+    @DisplayName("onTaskChange deve mover a tarefa entre grupos sem consultar o banco novamente")
+    void onTaskChange_ShouldApplyDeltas() {
+        TaskResponse before = task(null, TaskStatus.EM_ANDAMENTO, TaskPriority.MEDIA, today);
+        TaskResponse after = task(1L, TaskStatus.CONCLUIDA, TaskPriority.MEDIA, today);
+
+        taskStatsService.onTaskChange(new TaskChangeEvent(TaskChangeType.UPDATED, after, before));
+        taskStatsService.onTaskChange(new TaskChangeEvent(TaskChangeType.CREATED,
+                task(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.BAIXA, today.plusYears(1)), null));
+
+        TaskStatsResponse stats = taskStatsService.getStats(ADMIN);
+
+        assertEquals(7, stats.getGlobal().getTotal());
+        assertEquals(0, stats.getUnassigned().getTotal());
+        assertEquals(0, stats.getGlobal().getDueThisWeek());
+        TaskStats user1 = stats.getByResponsible().get(0);
+        assertEquals(4, user1.getTotal());
+        assertEquals(1L, user1.getByStatus().get(TaskStatus.CONCLUIDA));
+    }
+
+    @Test
+    @DisplayName("reconcile deve reaplicar nos contadores novos as alterações recebidas durante a consulta")
+    void reconcile_ShouldReplayChangesReceivedDuringQuery() {
+        List<TaskStatsRow> rows = List.of(new TaskStatsRow(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.ALTA, today, 2L));
+        when(taskRepository.countGroupedForStats()).thenAnswer(invocation -> {
+            // Confirmada depois do início da consulta: não aparece nas linhas agregadas.
+            taskStatsService.onTaskChange(new TaskChangeEvent(TaskChangeType.CREATED,
+                    task(2L, TaskStatus.EM_ANDAMENTO, TaskPriority.BAIXA, today), null));
+            return rows;
+        });
+
+        taskStatsService.reconcile();
+        TaskStatsResponse stats = taskStatsService.getStats(ADMIN);
+
+        assertEquals(3, stats.getGlobal().getTotal());
+        assertEquals(List.of(1L, 2L), stats.getByResponsible().stream().map(TaskStats::getResponsibleId).toList());
+
+        // Sem reconciliação em andamento, a alteração só é aplicada uma vez.
+        taskStatsService.onTaskChange(new TaskChangeEvent(TaskChangeType.DELETED,
+                task(2L, TaskStatus.EM_ANDAMENTO, TaskPriority.BAIXA, today), null));
+        assertEquals(2, taskStatsService.getStats(ADMIN).getGlobal().getTotal());
+    }
+
+    @Test
+    @DisplayName("atualização reaplicada que a consulta já enxergava não deve deixar contadores negativos")
+    void reconcile_ShouldNotGoNegativeWhenReplayedUpdateIsAlreadyInRows() {
+        // A tarefa já foi movida para o usuário 1 quando a consulta leu o banco.
+        List<TaskStatsRow> rows = List.of(new TaskStatsRow(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.ALTA, today, 2L));
+        when(taskRepository.countGroupedForStats()).thenAnswer(invocation -> {
+            taskStatsService.onTaskChange(new TaskChangeEvent(TaskChangeType.UPDATED,
+                    task(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.ALTA, today),
+                    task(null, TaskStatus.EM_ANDAMENTO, TaskPriority.MEDIA, today)));
+            return rows;
+        });
+
+        taskStatsService.reconcile();
+        TaskStatsResponse stats = taskStatsService.getStats(ADMIN);
+
+        assertEquals(0, stats.getUnassigned().getTotal());
+        assertEquals(0L, stats.getUnassigned().getByPriority().get(TaskPriority.MEDIA));
+        assertEquals(0, stats.getUnassigned().getDueThisWeek());
+        assertEquals(0L, stats.getGlobal().getByPriority().get(TaskPriority.MEDIA));
+        assertEquals(2, stats.getGlobal().getTotal());
+    }
+
+    @Test
+    @DisplayName("primeiras leituras simultâneas devem disparar uma única reconciliação")
+    void getStats_ShouldReconcileOnceForConcurrentFirstReads() throws Exception {
+        List<TaskStatsRow> rows = List.of(new TaskStatsRow(1L, TaskStatus.EM_ANDAMENTO, TaskPriority.ALTA, today, 6L));
+        when(taskRepository.countGroupedForStats()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return rows;
+        });
+        TaskStatsService fresh = new TaskStatsService(taskRepository);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TaskStatsResponse>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    return fresh.getStats(ADMIN);
+                }));
+            }
+            start.countDown();
+            for (Future<TaskStatsResponse> read : reads) {
+                assertEquals(6, read.get(5, TimeUnit.SECONDS).getGlobal().getTotal());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Uma chamada no setUp e uma na primeira leitura do serviço novo.
+        verify(taskRepository, times(2)).countGroupedForStats();
+    }
+
+    @Test
+    @DisplayName("getStats deve restringir usuário comum às próprias tarefas e às sem responsável")
+    void getStats_ShouldRestrictNonAdminToVisibleTasks() {
+        TaskStatsResponse stats = taskStatsService.getStats(USER_1);
+
+        assertEquals(3, stats.getGlobal().getTotal());
+        assertEquals(1, stats.getByResponsible().size());
+        assertEquals(1L, stats.getByResponsible().get(0).getResponsibleId());
+        assertEquals(0L, stats.getGlobal().getByStatus().get(TaskStatus.CONCLUIDA));
+    }
+}
@@ -0,0 +1,71 @@
+package com.esig.desafio.user;
+
+import com.esig.desafio.auth.JwtAuthenticationFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = UserController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Test
+    @DisplayName("GET /users deve retornar as opções com ETag e Cache-Control privado")
+    void searchOptions_ShouldReturnOptionsWithCacheHeaders() throws Exception {
+        when(userService.getSearchETag()).thenReturn("\"2-abc\"");
+        when(userService.search("mar", 20)).thenReturn(List.of(UserOptionResponse.of(1L, "Maria", "maria@exemplo.com")));
+
+        mockMvc.perform(get("/users").param("q", "mar"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, private"))
+                .andExpect(jsonPath("$[0].value").value(1))
+                .andExpect(jsonPath("$[0].label").value("Maria (maria@exemplo.com)"));
+    }
+
+    @Test
+    @DisplayName("GET /users com If-None-Match igual ao ETag deve retornar 304 sem buscar")
+    void searchOptions_ShouldReturnNotModified() throws Exception {
+        when(userService.getSearchETag()).thenReturn("\"2-abc\"");
+
+        mockMvc.perform(get("/users").param("q", "mar").header(HttpHeaders.IF_NONE_MATCH, "\"2-abc\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).search(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /users com termo de 1 caractere deve retornar 400")
+    void searchOptions_ShouldRejectShortQuery() throws Exception {
+        mockMvc.perform(get("/users").param("q", "a"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors[0].field").value("q"));
+    }
+}
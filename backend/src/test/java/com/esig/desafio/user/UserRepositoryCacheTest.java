@@ -0,0 +1,94 @@
+package com.esig.desafio.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de segundo nível de {@link User}: cada chamada ao repositório roda em sua própria
+ * transação (e sessão), então só deixa de ir ao banco se o cache compartilhado responder.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+
+        user = userRepository.save(User.builder()
+                .name("Cache")
+                .email("cache@exemplo.com")
+                .password("hash")
+                .roles("ROLE_USER")
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("findById repetido deve ser servido pelo cache de segundo nível, sem consultar o banco")
+    void findById_ShouldHitSecondLevelCache() {
+        assertTrue(userRepository.findById(user.getId()).isPresent());
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("cache@exemplo.com", userRepository.findById(user.getId()).orElseThrow().getEmail());
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    }
+
+    @Test
+    @DisplayName("findByEmail repetido deve ser servido pelo cache de consultas, sem consultar o banco")
+    void findByEmail_ShouldHitQueryCache() {
+        assertTrue(userRepository.findByEmail("cache@exemplo.com").isPresent());
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(user.getId(), userRepository.findByEmail("cache@exemplo.com").orElseThrow().getId());
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getQueryRegionStatistics("users-by-email").getHitCount());
+    }
+
+    @Test
+    @DisplayName("alteração do usuário deve atualizar o cache, sem retornar o estado antigo")
+    void save_ShouldUpdateCachedUser() {
+        userRepository.findByEmail("cache@exemplo.com").orElseThrow();
+
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setPassword("novo-hash");
+        userRepository.save(loaded);
+
+        assertEquals("novo-hash", userRepository.findByEmail("cache@exemplo.com").orElseThrow().getPassword());
+        assertEquals("novo-hash", userRepository.findById(user.getId()).orElseThrow().getPassword());
+    }
+}
@@ -0,0 +1,89 @@
+package com.esig.desafio.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllForSearch()).thenReturn(List.of(
+                new UserSearchRow(1L, "Maria Souza", "maria@exemplo.com"),
+                new UserSearchRow(2L, "João Mariano", "joao.mariano@exemplo.com"),
+                new UserSearchRow(3L, "Ana Lima", "ana@empresa.com"),
+                new UserSearchRow(4L, "Rosemary Alves", "rose@exemplo.com")
+        ));
+        index = new UserSearchIndex(userRepository);
+    }
+
+    @Test
+    @DisplayName("deve retornar primeiro quem começa pelo termo, depois palavras e depois trechos")
+    void search_ShouldRankPrefixBeforeInfix() {
+        // Maria: nome começa por "mar"; João Mariano: palavra começa por "mar"; Rosemary: contém "mar".
+        assertEquals(List.of(1L, 2L, 4L), ids(index.search("mar", 10)));
+    }
+
+    @Test
+    @DisplayName("deve ignorar acentos e maiúsculas e buscar também no e-mail")
+    void search_ShouldIgnoreAccentsAndCase() {
+        assertEquals(List.of(2L), ids(index.search("JOÃO", 10)));
+        assertEquals(List.of(2L), ids(index.search("joao", 10)));
+        assertEquals(List.of(3L), ids(index.search("empresa", 10)));
+    }
+
+    @Test
+    @DisplayName("termo curto deve casar apenas com o início das palavras")
+    void search_ShortTermShouldMatchWordPrefix() {
+        assertEquals(List.of(4L), ids(index.search("al", 10)));
+        assertEquals(List.of(), ids(index.search("ri", 10)));
+    }
+
+    @Test
+    @DisplayName("deve respeitar o limite, inclusive sem termo (ordem alfabética)")
+    void search_ShouldApplyLimit() {
+        assertEquals(List.of(3L, 2L), ids(index.search(null, 2)));
+        assertEquals(1, index.search("exemplo", 1).size());
+    }
+
+    @Test
+    @DisplayName("novo cadastro deve entrar no índice e mudar o ETag, sem nova consulta ao banco")
+    void add_ShouldUpdateResultsAndETag() {
+        String etag = index.getETag();
+        assertEquals(List.of(), ids(index.search("pedro", 10)));
+
+        index.add(new UserSearchRow(5L, "Pedro Santos", "pedro@exemplo.com"));
+
+        assertEquals(List.of(5L), ids(index.search("pedro", 10)));
+        assertNotEquals(etag, index.getETag());
+        verify(userRepository, times(1)).findAllForSearch();
+    }
+
+    @Test
+    @DisplayName("remontagem com os mesmos usuários deve manter o ETag")
+    void rebuild_ShouldKeepETagWhenUnchanged() {
+        String etag = index.getETag();
+
+        index.rebuild();
+
+        assertEquals(etag, index.getETag());
+    }
+
+    private static List<Long> ids(List<UserOptionResponse> options) {
+        return options.stream().map(UserOptionResponse::getValue).toList();
+    }
+}
@@ -1,15 +1,16 @@
 package com.esig.desafio.user;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,9 +26,16 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private UserSearchIndex searchIndex;
+
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, passwordEncoder, searchIndex, 100, Duration.ofMinutes(10));
+    }
+
     @Test
     @DisplayName("create deve criptografar senha, definir ROLE_USER por padrão e salvar usuário")
     void create_ShouldEncodePasswordAndSetDefaultRole() {
@@ -46,6 +54,7 @@ class UserServiceTest {
         assertEquals("encoded", saved.getPassword());
         assertEquals("ROLE_USER", saved.getRoles());
         verify(userRepository).save(any(User.class));
+        verify(searchIndex).add(any(UserSearchRow.class));
     }
 
     @Test
@@ -89,6 +98,57 @@ class UserServiceTest {
 
         assertThrows(EntityNotFoundException.class, () -> userService.getByIdOrThrow(1L));
     }
-}
 
+    @Test
+    @DisplayName("getByIdOrThrow e getByEmailOrThrow devem consultar o banco apenas uma vez por usuário")
+    void lookups_ShouldBeServedFromCache() {
+        User user = User.builder().id(1L).email("teste@exemplo.com").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.getByIdOrThrow(1L);
+        userService.getByIdOrThrow(1L);
+        User byEmail = userService.getByEmailOrThrow("teste@exemplo.com");
+
+        assertSame(user, byEmail);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).findByEmail(any());
+        assertEquals(2, userService.getCacheStats().hitCount());
+    }
+
+    @Test
+    @DisplayName("create deve invalidar o cache do e-mail cadastrado")
+    void create_ShouldEvictCachedEmail() {
+        when(userRepository.findByEmail("novo@exemplo.com")).thenReturn(Optional.empty());
+        assertTrue(userService.findByEmail("novo@exemplo.com").isEmpty());
+
+        User created = User.builder().id(5L).email("novo@exemplo.com").password("senha123").build();
+        when(userRepository.existsByEmail("novo@exemplo.com")).thenReturn(false);
+        when(passwordEncoder.encode("senha123")).thenReturn("encoded");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.create(created);
+
+        when(userRepository.findByEmail("novo@exemplo.com")).thenReturn(Optional.of(created));
+        assertTrue(userService.findByEmail("novo@exemplo.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("updatePasswordHash deve gravar o novo hash sem recalculá-lo")
+    void updatePasswordHash_ShouldSaveGivenHash() {
+        User user = User.builder().id(1L).email("teste@exemplo.com").password("hash-antigo").build();
+        when(userRepository.findByEmail("teste@exemplo.com")).thenReturn(Optional.of(user));
 
+        userService.updatePasswordHash("teste@exemplo.com", "hash-novo");
+
+        assertEquals("hash-novo", user.getPassword());
+        verify(userRepository).save(user);
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("search deve recusar limit fora do intervalo permitido sem consultar o índice")
+    void search_ShouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> userService.search("jo", 0));
+        assertThrows(IllegalArgumentException.class, () -> userService.search("jo", UserService.MAX_SEARCH_LIMIT + 1));
+        verifyNoInteractions(searchIndex);
+    }
+}